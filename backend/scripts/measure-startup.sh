@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Mide el tiempo de arranque del backend: imagen estándar vs. imagen fast-start (AOT + AppCDS).
+# Requiere la base levantada: docker-compose -f docker-compose-db.yml up -d
+#
+# Uso: backend/scripts/measure-startup.sh [corridas]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+DB_URL="${DB_URL:-jdbc:postgresql://host.docker.internal:5433/ecommerce}"
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+
+echo "Construyendo imágenes..."
+docker build -q --target standard -t ecommerce-backend:standard "$BACKEND_DIR" > /dev/null
+docker build -q -t ecommerce-backend:fast-start "$BACKEND_DIR" > /dev/null
+
+now_ms() {
+    date +%s%3N
+}
+
+# Milisegundos desde docker run hasta la primera respuesta HTTP (cualquier código, 401 incluido)
+measure_once() {
+    local image="$1"
+    local name="startup-probe-$$"
+    local start end
+    start=$(now_ms)
+    docker run -d --rm --name "$name" -p "$PORT:8080" \
+        --add-host=host.docker.internal:host-gateway \
+        -e APP_DATASOURCE_PRIMARY_URL="$DB_URL" \
+        "$image" > /dev/null
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/api/categories")" != "000" ]; do
+        if ! docker inspect "$name" > /dev/null 2>&1; then
+            echo "El contenedor $image terminó antes de atender" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(now_ms)
+    # Tiempo que reporta Spring Boot ("Started Application in X seconds")
+    local reported
+    reported=$(docker logs "$name" 2>&1 | sed -n 's/.*Started Application in \([0-9.]*\) seconds.*/\1/p')
+    docker stop "$name" > /dev/null
+    echo "$((end - start)) ${reported:-?}"
+}
+
+median() {
+    sort -n | awk '{ a[NR] = $1 } END { if (NR % 2) print a[(NR + 1) / 2]; else print int((a[NR / 2] + a[NR / 2 + 1]) / 2) }'
+}
+
+for image in ecommerce-backend:standard ecommerce-backend:fast-start; do
+    # Corrida descartada: la primera arrastra el costo de caché de disco del host
+    measure_once "$image" > /dev/null
+    results=()
+    for i in $(seq 1 "$RUNS"); do
+        result=$(measure_once "$image")
+        results+=("$result")
+        echo "$image corrida $i: ${result% *} ms hasta la primera respuesta (Spring: ${result#* } s)"
+    done
+    printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median | xargs printf "$image mediana: %s ms\n"
+done
@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Corre los benchmarks de JMH y guarda el resultado por commit para comparar regresiones.
+#
+# Uso:
+#   backend/scripts/run-benchmarks.sh [regex de benchmarks]        -> target/jmh/<commit>.json
+#   backend/scripts/run-benchmarks.sh --compare base.json nuevo.json
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+
+if [ "${1:-}" = "--compare" ]; then
+    python3 - "$2" "$3" <<'PY'
+import json, sys
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for r in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(r.get("params", {}).items()))
+            results[f"{r['benchmark'].rsplit('.', 2)[-2]}.{r['benchmark'].rsplit('.', 1)[-1]}({params})"] = r["primaryMetric"]
+        return results
+
+base, new = load(sys.argv[1]), load(sys.argv[2])
+print(f"{'benchmark':70} {'base':>12} {'nuevo':>12} {'cambio':>8}")
+for name in sorted(base.keys() & new.keys()):
+    b, n = base[name]["score"], new[name]["score"]
+    change = (n - b) / b * 100 if b else 0.0
+    print(f"{name:70} {b:12.3f} {n:12.3f} {change:+7.1f}%  {new[name]['scoreUnit']}")
+PY
+    exit 0
+fi
+
+COMMIT="$(git -C "$BACKEND_DIR" rev-parse --short HEAD)"
+if [ -n "$(git -C "$BACKEND_DIR" status --porcelain -- src)" ]; then
+    COMMIT="$COMMIT-dirty"
+fi
+mkdir -p "$BACKEND_DIR/target/jmh"
+RESULT="target/jmh/$COMMIT.json"
+
+cd "$BACKEND_DIR"
+mvn -B -Pjmh verify -DskipTests "-Djmh.args=-rf json -rff $RESULT ${1:-}"
+echo "Resultados: $BACKEND_DIR/$RESULT"
@@ -0,0 +1,56 @@
+package com.ecommerce;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Datos sintéticos con semilla fija: cada corrida de benchmarks mide exactamente las mismas entradas
+public final class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"electronicos", "ropa", "hogar", "deportes", "libros", "belleza"};
+
+    private BenchmarkData() {}
+
+    public static List<Product> products(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Producto " + (i + 1));
+            product.setDescription("Descripción del producto " + (i + 1) + " con algo de texto para que el JSON tenga un tamaño realista");
+            product.setPrice(Math.round(random.nextDouble(1, 500_000) * 100) / 100.0);
+            product.setStock(random.nextInt(0, 500));
+            product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            product.setImageUrl("https://images.example.com/products/" + (i + 1) + ".jpg");
+            products.add(product);
+        }
+        return products;
+    }
+
+    public static List<ProductDTO> productDTOs(int count) {
+        List<ProductDTO> dtos = new ArrayList<>(count);
+        for (Product product : products(count)) {
+            dtos.add(new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                    product.getStock(), product.getCategory(), product.getImageUrl()));
+        }
+        return dtos;
+    }
+
+    public static List<CartItem> cartItems(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<CartItem> items = new ArrayList<>(count);
+        for (Product product : products(count)) {
+            CartItem item = new CartItem();
+            item.setId(product.getId());
+            item.setProduct(product);
+            item.setQuantity(random.nextInt(1, 6));
+            items.add(item);
+        }
+        return items;
+    }
+}
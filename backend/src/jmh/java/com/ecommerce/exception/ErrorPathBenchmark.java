@@ -0,0 +1,77 @@
+package com.ecommerce.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Un 404 por id inexistente y un 401 por credenciales inválidas de punta a punta: lanzar la excepción desde
+// una pila de la profundidad de una request de Spring, atraparla, armar el ErrorResponse y serializarlo.
+// stackTraces=true es el comportamiento anterior.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stackTraces;
+
+    // Frames entre el filtro de Tomcat y el servicio en una request típica
+    @Param({"120"})
+    public int depth;
+
+    private ObjectMapper objectMapper;
+    private long missingId;
+
+    @Setup
+    public void setUp() {
+        DomainException.setStackTraces(stackTraces);
+        // Mismos módulos que registra Spring Boot al encontrarlos en el classpath
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        DomainException.setStackTraces(false);
+    }
+
+    @Benchmark
+    public byte[] productNotFound() throws JsonProcessingException {
+        long id = ++missingId;
+        try {
+            throwAtDepth(depth, () -> new ResourceNotFoundException("Producto", "id", id));
+            throw new IllegalStateException();
+        } catch (ResourceNotFoundException e) {
+            ResponseEntity<ErrorResponse> response = GlobalExceptionHandler.error(
+                    HttpStatus.NOT_FOUND, "Not Found", e.getMessage(), "/api/products/" + id);
+            return objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] invalidCredentials() throws JsonProcessingException {
+        try {
+            throwAtDepth(depth, () -> new UnauthorizedException("Credenciales inválidas"));
+            throw new IllegalStateException();
+        } catch (UnauthorizedException e) {
+            ResponseEntity<ErrorResponse> response = GlobalExceptionHandler.error(
+                    HttpStatus.UNAUTHORIZED, "Unauthorized", e.getMessage(), "/api/auth/login");
+            return objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+
+    private static void throwAtDepth(int remaining, Supplier<DomainException> factory) {
+        if (remaining == 0) {
+            throw factory.get();
+        }
+        throwAtDepth(remaining - 1, factory);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String EMAIL = "benchmark@ecommerce.com";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        // HS256 exige una clave de al menos 256 bits
+        setField(jwtUtil, "secret", "MySuperSecretKeyForJWTsThatIsLongEnoughForHS256");
+        setField(jwtUtil, "expiration", 86_400_000L);
+        token = jwtUtil.generateToken(EMAIL, Set.of("user"));
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, Set.of("user"));
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+
+    // Lo que hace JwtAuthenticationFilter en cada request
+    @Benchmark
+    public String parseClaims() {
+        return jwtUtil.parseClaims(token).getSubject();
+    }
+}
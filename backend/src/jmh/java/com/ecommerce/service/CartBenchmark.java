@@ -0,0 +1,43 @@
+package com.ecommerce.service;
+
+import com.ecommerce.BenchmarkData;
+import com.ecommerce.model.CartItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartBenchmark {
+
+    // Carritos reales tienen pocas líneas; 200 cubre el peor caso razonable
+    @Param({"1", "10", "200"})
+    public int lines;
+
+    private CartService cartService;
+    private List<CartItem> items;
+
+    @Setup
+    public void setUp() {
+        cartService = new CartService();
+        items = BenchmarkData.cartItems(lines);
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (CartItem item : items) {
+            blackhole.consume(cartService.convertToDTO(item));
+        }
+    }
+
+    @Benchmark
+    public double calculateTotal() {
+        return CartService.calculateTotal(items);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.service;
+
+import com.ecommerce.BenchmarkData;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ProductService productService;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService();
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (Product product : products) {
+            ProductDTO dto = productService.convertToDTO(product);
+            blackhole.consume(dto);
+        }
+    }
+}
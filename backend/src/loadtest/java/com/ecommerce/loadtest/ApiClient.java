@@ -0,0 +1,103 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+// Cliente HTTP compartido por todas las sesiones; cada llamada se registra bajo el nombre de su endpoint
+class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+
+    // Se reemplaza al terminar el calentamiento para descartar lo medido hasta ahí
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    ApiClient(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    Map<String, EndpointStats> resetStats() {
+        Map<String, EndpointStats> previous = stats;
+        stats = new ConcurrentHashMap<>();
+        return previous;
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    // Devuelve el cuerpo parseado si la respuesta fue 2xx, null en cualquier otro caso
+    JsonNode call(String endpoint, String method, String path, String token, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo serializar el cuerpo para " + endpoint, e);
+        }
+
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            endpointStats.recordTransportError(System.nanoTime() - start);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        endpointStats.record(response.statusCode(), System.nanoTime() - start);
+
+        if (response.statusCode() / 100 != 2) {
+            return null;
+        }
+        try {
+            byte[] responseBody = response.body();
+            return responseBody.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(responseBody);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Para esperar al backend: cualquier respuesta HTTP indica que está atendiendo
+    boolean isReachable(String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(2)).GET().build();
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Backend en un proceso aparte (perfil dev, H2 en memoria) para que el generador no le robe CPU ni heap
+class BackendProcess {
+
+    private static final long STARTUP_TIMEOUT_MS = 180_000;
+
+    private final Process process;
+    private final Path log;
+
+    private BackendProcess(Process process, Path log) {
+        this.process = process;
+        this.log = log;
+    }
+
+    static BackendProcess start(int port) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        // Secreto aleatorio de 256 bits: HS256 rechaza claves más cortas
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+
+        List<String> command = List.of(
+                java,
+                "-cp", System.getProperty("java.class.path"),
+                "com.ecommerce.Application",
+                "--spring.profiles.active=dev",
+                "--server.port=" + port,
+                "--management.server.port=-1",
+                "--jwt.secret=" + HexFormat.of().formatHex(secret),
+                "--monitoring.sql.log-sample-rate=0"
+        );
+        Path log = Paths.get("target", "loadtest-backend.log");
+        log.getParent().toFile().mkdirs();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new BackendProcess(process, log);
+    }
+
+    void awaitReady(ApiClient client) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (!client.isReachable("/api/products")) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("El backend terminó durante el arranque, ver " + log.toAbsolutePath());
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("El backend no respondió en " + STARTUP_TIMEOUT_MS / 1000 + " s, ver " + log.toAbsolutePath());
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    void stop() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    File logFile() {
+        return log.toFile();
+    }
+}
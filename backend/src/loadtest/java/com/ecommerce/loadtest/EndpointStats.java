@@ -0,0 +1,55 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencias en microsegundos, de 1 µs a 60 s con 3 dígitos significativos
+class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Histogram latency = new ConcurrentHistogram(1, MAX_TRACKABLE_MICROS, 3);
+    final LongAdder success = new LongAdder();
+    final LongAdder clientErrors = new LongAdder();
+    final LongAdder serverErrors = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder shed = new LongAdder();
+
+    void record(int status, long nanos) {
+        latency.recordValue(Math.min(Math.max(nanos / 1_000, 1), MAX_TRACKABLE_MICROS));
+        if (status >= 200 && status < 400) {
+            success.increment();
+        } else if (status == 503) {
+            // Rechazo rápido por sobrecarga: se informa aparte del resto de los 5xx
+            shed.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else {
+            clientErrors.increment();
+        }
+    }
+
+    void recordTransportError(long nanos) {
+        latency.recordValue(Math.min(Math.max(nanos / 1_000, 1), MAX_TRACKABLE_MICROS));
+        transportErrors.increment();
+    }
+
+    long count() {
+        return success.sum() + clientErrors.sum() + serverErrors.sum() + transportErrors.sum() + shed.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    double maxMillis() {
+        return latency.getMaxValue() / 1_000.0;
+    }
+
+    double meanMillis() {
+        return latency.getMean() / 1_000.0;
+    }
+}
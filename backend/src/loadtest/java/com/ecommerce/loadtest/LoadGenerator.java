@@ -0,0 +1,204 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Generador de carga de modelo abierto: las sesiones llegan según un proceso de Poisson a la tasa configurada,
+// sin esperar a que terminen las anteriores, cada una en su propio hilo virtual.
+//
+// mvn -Ploadtest verify -Dloadtest.args="--rate=50 --duration=120"
+public class LoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        BackendProcess backend = null;
+        URI target = options.target;
+        if (target == null) {
+            backend = BackendProcess.start(options.backendPort);
+            target = URI.create("http://localhost:" + options.backendPort + "/");
+        }
+        ApiClient client = new ApiClient(target);
+        try {
+            if (backend != null) {
+                System.out.println("Esperando al backend (log en " + backend.logFile().getPath() + ")...");
+                backend.awaitReady(client);
+            }
+            String runId = Integer.toHexString(new SplittableRandom(options.seed).nextInt(0x1000, 0x10000));
+            UserPool users = new UserPool(client, runId);
+            UserJourney.Catalog catalog = prepareCatalog(client, users, backend != null);
+            run(client, users, catalog, options);
+        } finally {
+            if (backend != null) {
+                backend.stop();
+            }
+        }
+    }
+
+    private static UserJourney.Catalog prepareCatalog(ApiClient client, UserPool users, boolean restock) {
+        String email = users.acquire();
+        JsonNode login = email == null ? null : client.call("POST /api/auth/login", "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", UserPool.PASSWORD));
+        JsonNode products = client.call("GET /api/products", "GET", "/api/products", null, null);
+        if (login == null || products == null || products.size() == 0) {
+            throw new IllegalStateException("No se pudo preparar la corrida: login o catálogo fallaron");
+        }
+
+        List<Long> productIds = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        for (JsonNode product : products) {
+            productIds.add(product.path("id").asLong());
+            String category = product.path("category").asText();
+            if (!categories.contains(category)) {
+                categories.add(category);
+            }
+        }
+        // Solo contra el backend propio: con stock agotado los checkouts medirían rechazos en lugar de compras
+        if (restock) {
+            String token = login.path("token").asText();
+            for (Long productId : productIds) {
+                client.call("PUT /api/products/{id}", "PUT", "/api/products/" + productId, token, Map.of("stock", 1_000_000));
+            }
+        }
+        users.release(email);
+        client.resetStats();
+        return new UserJourney.Catalog(productIds, categories);
+    }
+
+    private static void run(ApiClient client, UserPool users, UserJourney.Catalog catalog, LoadTestOptions options)
+            throws Exception {
+        System.out.printf("Corriendo: %.1f sesiones/s, %d s de calentamiento + %d s medidos, %d productos%n",
+                options.sessionsPerSecond, options.warmupSeconds, options.durationSeconds, catalog.productIds().size());
+
+        SplittableRandom arrivals = new SplittableRandom(options.seed);
+        Semaphore sessionSlots = new Semaphore(options.maxConcurrentSessions);
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        boolean measuring = false;
+        long startedSessions = 0;
+        long droppedSessions = 0;
+        long completedBefore = 0;
+        long abortedBefore = 0;
+        long checkoutsBefore = 0;
+        long nextArrival = start;
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+            if (!measuring && now >= warmupEnd) {
+                client.resetStats();
+                completedBefore = UserJourney.completedSessions.sum();
+                abortedBefore = UserJourney.abortedSessions.sum();
+                checkoutsBefore = UserJourney.checkouts.sum();
+                measuring = true;
+            }
+            if (nextArrival > now) {
+                LockSupport.parkNanos(Math.min(nextArrival, end) - now);
+                continue;
+            }
+
+            if (sessionSlots.tryAcquire()) {
+                UserJourney journey = new UserJourney(client, users, catalog, options, arrivals.split());
+                Thread.ofVirtual().name("session-" + startedSessions).start(() -> {
+                    try {
+                        journey.run();
+                    } finally {
+                        sessionSlots.release();
+                    }
+                });
+                if (measuring) {
+                    startedSessions++;
+                }
+            } else if (measuring) {
+                // El sistema no da abasto: la sesión se pierde en lugar de frenar las llegadas
+                droppedSessions++;
+            }
+            // Tiempo entre llegadas exponencial con media 1/tasa
+            double interArrivalSeconds = -Math.log(1.0 - arrivals.nextDouble()) / options.sessionsPerSecond;
+            nextArrival += (long) (interArrivalSeconds * 1_000_000_000L);
+        }
+
+        // Las sesiones en curso terminan, pero lo que midan fuera de la ventana queda en las mismas estadísticas
+        if (!sessionSlots.tryAcquire(options.maxConcurrentSessions, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            System.out.println("Aviso: quedaron sesiones en curso después de " + DRAIN_TIMEOUT_SECONDS + " s");
+        }
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("started", startedSessions);
+        sessions.put("completed", UserJourney.completedSessions.sum() - completedBefore);
+        sessions.put("aborted", UserJourney.abortedSessions.sum() - abortedBefore);
+        sessions.put("dropped", droppedSessions);
+        sessions.put("checkouts", UserJourney.checkouts.sum() - checkoutsBefore);
+        sessions.put("registeredUsers", users.size());
+        report(client.stats(), sessions, options);
+    }
+
+    private static void report(Map<String, EndpointStats> stats, Map<String, Object> sessions, LoadTestOptions options)
+            throws Exception {
+        double seconds = options.durationSeconds;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+
+        System.out.println();
+        System.out.printf("%-30s %8s %9s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx", "503", "io", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            long count = endpoint.count();
+            System.out.printf("%-30s %8d %9.1f %7d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), count, count / seconds,
+                    endpoint.clientErrors.sum(), endpoint.serverErrors.sum(), endpoint.shed.sum(), endpoint.transportErrors.sum(),
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(90), endpoint.percentileMillis(99),
+                    endpoint.percentileMillis(99.9), endpoint.maxMillis());
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("requests", count);
+            json.put("throughputPerSecond", count / seconds);
+            json.put("errorRate", count == 0 ? 0.0
+                    : (double) (endpoint.serverErrors.sum() + endpoint.transportErrors.sum()) / count);
+            json.put("clientErrors", endpoint.clientErrors.sum());
+            json.put("serverErrors", endpoint.serverErrors.sum());
+            json.put("shed", endpoint.shed.sum());
+            json.put("transportErrors", endpoint.transportErrors.sum());
+            json.put("meanMs", endpoint.meanMillis());
+            json.put("p50Ms", endpoint.percentileMillis(50));
+            json.put("p90Ms", endpoint.percentileMillis(90));
+            json.put("p99Ms", endpoint.percentileMillis(99));
+            json.put("p999Ms", endpoint.percentileMillis(99.9));
+            json.put("maxMs", endpoint.maxMillis());
+            endpoints.put(entry.getKey(), json);
+        }
+        System.out.println();
+        System.out.println("Sesiones: " + sessions);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sessionsPerSecond", options.sessionsPerSecond);
+        report.put("durationSeconds", options.durationSeconds);
+        report.put("seed", options.seed);
+        report.put("sessions", sessions);
+        report.put("endpoints", endpoints);
+        File reportFile = new File(options.report);
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        System.out.println("Reporte: " + reportFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+// Opciones en formato --clave=valor; todas tienen un valor por defecto razonable para una corrida local
+class LoadTestOptions {
+
+    // Sin --target se levanta el backend con el perfil dev (H2 en memoria) en backendPort
+    URI target;
+    int backendPort = 18080;
+    double sessionsPerSecond = 10;
+    int durationSeconds = 60;
+    int warmupSeconds = 10;
+    double checkoutRatio = 0.3;
+    int maxCartAdds = 3;
+    int productViews = 3;
+    int maxThinkTimeMs = 200;
+    int maxConcurrentSessions = 5_000;
+    long seed = 42;
+    String report = "target/loadtest-report.json";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (se espera --clave=valor)");
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        if (values.containsKey("target")) {
+            options.target = URI.create(values.remove("target"));
+        }
+        options.backendPort = intValue(values, "backend-port", options.backendPort);
+        options.sessionsPerSecond = doubleValue(values, "rate", options.sessionsPerSecond);
+        options.durationSeconds = intValue(values, "duration", options.durationSeconds);
+        options.warmupSeconds = intValue(values, "warmup", options.warmupSeconds);
+        options.checkoutRatio = doubleValue(values, "checkout-ratio", options.checkoutRatio);
+        options.maxCartAdds = intValue(values, "cart-adds", options.maxCartAdds);
+        options.productViews = intValue(values, "product-views", options.productViews);
+        options.maxThinkTimeMs = intValue(values, "think-time-ms", options.maxThinkTimeMs);
+        options.maxConcurrentSessions = intValue(values, "max-sessions", options.maxConcurrentSessions);
+        options.seed = (long) doubleValue(values, "seed", options.seed);
+        if (values.containsKey("report")) {
+            options.report = values.remove("report");
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Opciones desconocidas: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.remove(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static double doubleValue(Map<String, String> values, String key, double defaultValue) {
+        String value = values.remove(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Una sesión de compra: login, catálogo, detalle de productos, altas y cambios en el carrito y, a veces, checkout
+class UserJourney implements Runnable {
+
+    static final LongAdder completedSessions = new LongAdder();
+    static final LongAdder checkouts = new LongAdder();
+    static final LongAdder abortedSessions = new LongAdder();
+
+    private final ApiClient client;
+    private final UserPool users;
+    private final Catalog catalog;
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+
+    UserJourney(ApiClient client, UserPool users, Catalog catalog, LoadTestOptions options, SplittableRandom random) {
+        this.client = client;
+        this.users = users;
+        this.catalog = catalog;
+        this.options = options;
+        this.random = random;
+    }
+
+    @Override
+    public void run() {
+        String email = users.acquire();
+        if (email == null) {
+            abortedSessions.increment();
+            return;
+        }
+        try {
+            if (shop(email)) {
+                completedSessions.increment();
+            } else {
+                abortedSessions.increment();
+            }
+        } finally {
+            users.release(email);
+        }
+    }
+
+    private boolean shop(String email) {
+        JsonNode login = client.call("POST /api/auth/login", "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", UserPool.PASSWORD));
+        if (login == null) {
+            return false;
+        }
+        String token = login.path("token").asText();
+        think();
+
+        client.call("GET /api/products", "GET", "/api/products", null, null);
+        think();
+        client.call("GET /api/products?category", "GET", "/api/products?category=" + catalog.randomCategory(random), null, null);
+        think();
+        for (int i = 0; i < options.productViews; i++) {
+            client.call("GET /api/products/{id}", "GET", "/api/products/" + catalog.randomProductId(random), token, null);
+            think();
+        }
+
+        int adds = 1 + random.nextInt(Math.max(options.maxCartAdds, 1));
+        for (int i = 0; i < adds; i++) {
+            client.call("POST /api/cart/add", "POST", "/api/cart/add", token,
+                    Map.of("productId", catalog.randomProductId(random), "quantity", 1 + random.nextInt(2)));
+            think();
+        }
+
+        JsonNode cart = client.call("GET /api/cart", "GET", "/api/cart", token, null);
+        if (cart != null && cart.size() > 0) {
+            JsonNode item = cart.get(random.nextInt(cart.size()));
+            client.call("PUT /api/cart/update/{id}", "PUT", "/api/cart/update/" + item.path("id").asLong(), token,
+                    Map.of("quantity", 1 + random.nextInt(3)));
+            think();
+        }
+
+        if (random.nextDouble() < options.checkoutRatio) {
+            if (client.call("POST /api/cart/checkout", "POST", "/api/cart/checkout", token, null) != null) {
+                checkouts.increment();
+                return true;
+            }
+        }
+        // Carrito abandonado o checkout rechazado: se vacía para que el usuario vuelva limpio al pool
+        client.call("DELETE /api/cart/clear", "DELETE", "/api/cart/clear", token, null);
+        return true;
+    }
+
+    private void think() {
+        if (options.maxThinkTimeMs > 0) {
+            try {
+                Thread.sleep(random.nextInt(options.maxThinkTimeMs + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Ids y categorías leídos una vez al preparar la corrida
+    static class Catalog {
+        private final List<Long> productIds;
+        private final List<String> categories;
+
+        Catalog(List<Long> productIds, List<String> categories) {
+            this.productIds = productIds;
+            this.categories = categories;
+        }
+
+        long randomProductId(SplittableRandom random) {
+            return productIds.get(random.nextInt(productIds.size()));
+        }
+
+        String randomCategory(SplittableRandom random) {
+            return categories.get(random.nextInt(categories.size()));
+        }
+
+        List<Long> productIds() {
+            return productIds;
+        }
+    }
+}
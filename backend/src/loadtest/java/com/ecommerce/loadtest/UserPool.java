@@ -0,0 +1,50 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cada sesión usa un usuario que nadie más está usando, así los carritos no se pisan entre sesiones.
+// Si no hay uno libre se registra otro: el pool crece hasta la concurrencia máxima alcanzada.
+class UserPool {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private final ApiClient client;
+    private final String runId;
+    private final ConcurrentLinkedQueue<String> idleEmails = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger registered = new AtomicInteger();
+
+    UserPool(ApiClient client, String runId) {
+        this.client = client;
+        this.runId = runId;
+    }
+
+    // Devuelve null si el registro falló
+    String acquire() {
+        String email = idleEmails.poll();
+        if (email != null) {
+            return email;
+        }
+        int number = registered.incrementAndGet();
+        String username = "lt" + runId + "u" + number;
+        email = username + "@loadtest.local";
+        JsonNode response = client.call("POST /api/auth/register", "POST", "/api/auth/register", null, Map.of(
+                "username", username,
+                "email", email,
+                "password", PASSWORD,
+                "firstName", "Carga",
+                "lastName", "Usuario"));
+        return response != null ? email : null;
+    }
+
+    void release(String email) {
+        idleEmails.offer(email);
+    }
+
+    int size() {
+        return registered.get();
+    }
+}
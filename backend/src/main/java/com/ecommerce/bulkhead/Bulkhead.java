@@ -0,0 +1,73 @@
+package com.ecommerce.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Compartimentos estancos: cada uno tiene sus propios hilos de request y su propio pool de conexiones,
+// así una avalancha de navegación en el catálogo no deja al checkout sin dónde ejecutarse.
+// Valores por defecto; cada uno se cambia con bulkhead.<compartimento>.max-concurrent, max-waiting,
+// max-wait-ms y pool-size.
+public enum Bulkhead {
+    CATALOG("catalog", 40, 40, 200, 3),
+    ORDERS("orders", 20, 20, 2000, 3),
+    ACCOUNTS("accounts", 16, 16, 1000, 2);
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final String key;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+    private final int poolSize;
+
+    Bulkhead(String key, int maxConcurrent, int maxWaiting, long maxWaitMs, int poolSize) {
+        this.key = key;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMs = maxWaitMs;
+        this.poolSize = poolSize;
+    }
+
+    public String getKey() { return key; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getMaxWaiting() { return maxWaiting; }
+    public long getMaxWaitMs() { return maxWaitMs; }
+    public int getPoolSize() { return poolSize; }
+
+    // El compartimento de la request que ejecuta el hilo actual; null fuera de una request clasificada
+    // (arranque, tareas programadas, ejecutores, administración)
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    static void enter(Bulkhead bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    // null si la request no pertenece a ningún compartimento (administración, escrituras del catálogo, preflight CORS)
+    public static Bulkhead of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if ("OPTIONS".equals(method)) {
+            return null;
+        }
+        // El stream SSE no usa la base ni retiene un hilo de request: no compite con el catálogo
+        if (path.equals("/api/products/stream")) {
+            return null;
+        }
+        if (path.startsWith("/api/cart")) {
+            return ORDERS;
+        }
+        if (path.startsWith("/api/auth/") || path.startsWith("/api/profile")) {
+            return ACCOUNTS;
+        }
+        if ("GET".equals(method) && (path.startsWith("/api/products") || path.startsWith("/api/categories")
+                || path.startsWith("/uploads/"))) {
+            return CATALOG;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.bulkhead;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Asigna cada request a su compartimento: le reserva hilos de request y marca el hilo para que
+// BulkheadRoutingDataSource le dé conexiones de su propio pool. Va después del limitador adaptativo:
+// este no se adapta, es el techo fijo que garantiza lugar al resto aunque el limitador todavía no haya reaccionado.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    @Value("${bulkhead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Bulkhead, Compartment> compartments = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> queueFullRejections = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> timeoutRejections = new EnumMap<>(Bulkhead.class);
+
+    @PostConstruct
+    public void createCompartments() {
+        int reservedThreads = 0;
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            Compartment compartment = new Compartment(
+                    environment.getProperty(property(bulkhead, "max-concurrent"), Integer.class, bulkhead.getMaxConcurrent()),
+                    environment.getProperty(property(bulkhead, "max-waiting"), Integer.class, bulkhead.getMaxWaiting()),
+                    environment.getProperty(property(bulkhead, "max-wait-ms"), Long.class, bulkhead.getMaxWaitMs()));
+            compartments.put(bulkhead, compartment);
+            reservedThreads += compartment.getMaxConcurrent() + compartment.getMaxWaiting();
+
+            Gauge.builder("bulkhead.active", compartment, Compartment::getActive)
+                    .description("Requests ejecutando dentro del compartimento")
+                    .tag("bulkhead", bulkhead.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.waiting", compartment, Compartment::getWaiting)
+                    .description("Requests esperando lugar en el compartimento")
+                    .tag("bulkhead", bulkhead.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.capacity", compartment, Compartment::getMaxConcurrent)
+                    .description("Requests concurrentes que admite el compartimento")
+                    .tag("bulkhead", bulkhead.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.saturation", compartment, Compartment::getSaturation)
+                    .description("Fracción de la capacidad del compartimento en uso")
+                    .tag("bulkhead", bulkhead.getKey())
+                    .register(meterRegistry);
+            queueFullRejections.put(bulkhead, rejectionCounter(bulkhead, "queue_full"));
+            timeoutRejections.put(bulkhead, rejectionCounter(bulkhead, "timeout"));
+        }
+
+        // Si los compartimentos pueden ocupar todos los hilos de Tomcat, el aislamiento no garantiza nada
+        if (enabled && !virtualThreads && reservedThreads >= tomcatThreads) {
+            logger.warn("Los compartimentos reservan {} hilos (max-concurrent + max-waiting) y Tomcat tiene {}: "
+                    + "un compartimento saturado puede dejar sin hilos al resto", reservedThreads, tomcatThreads);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = enabled ? Bulkhead.of(request) : null;
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Compartment compartment = compartments.get(bulkhead);
+        switch (compartment.enter()) {
+            case QUEUE_FULL:
+                queueFullRejections.get(bulkhead).increment();
+                ErrorResponse.writeOverloaded(request, response, objectMapper);
+                return;
+            case TIMEOUT:
+                timeoutRejections.get(bulkhead).increment();
+                ErrorResponse.writeOverloaded(request, response, objectMapper);
+                return;
+            default:
+                break;
+        }
+
+        Bulkhead.enter(bulkhead);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Bulkhead.exit();
+            compartment.leave();
+        }
+    }
+
+    private Counter rejectionCounter(Bulkhead bulkhead, String reason) {
+        return Counter.builder("bulkhead.rejected")
+                .description("Requests rechazadas con 503 por compartimento saturado")
+                .tag("bulkhead", bulkhead.getKey())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String property(Bulkhead bulkhead, String name) {
+        return "bulkhead." + bulkhead.getKey() + "." + name;
+    }
+}
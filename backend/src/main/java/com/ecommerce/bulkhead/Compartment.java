@@ -0,0 +1,67 @@
+package com.ecommerce.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hasta maxConcurrent requests ejecutando y maxWaiting esperando turno como mucho maxWaitMs; el resto se rechaza.
+// Con hilos de plataforma las que esperan también ocupan un hilo de Tomcat, por eso la cola es acotada.
+class Compartment {
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+
+    Compartment(int maxConcurrent, int maxWaiting, long maxWaitMs) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    enum Admission { ADMITTED, QUEUE_FULL, TIMEOUT }
+
+    Admission enter() {
+        if (permits.tryAcquire()) {
+            return Admission.ADMITTED;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return Admission.QUEUE_FULL;
+        }
+        try {
+            return permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS) ? Admission.ADMITTED : Admission.TIMEOUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Admission.TIMEOUT;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void leave() {
+        permits.release();
+    }
+
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    int getMaxWaiting() {
+        return maxWaiting;
+    }
+
+    int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    int getWaiting() {
+        return waiting.get();
+    }
+
+    double getSaturation() {
+        return (double) getActive() / maxConcurrent;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.config;
+
+import com.ecommerce.bulkhead.Bulkhead;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Cada compartimento toma conexiones de su propio pool del primario; lo que corre fuera de una request
+// clasificada (arranque, migraciones, tareas programadas, administración) usa el pool compartido
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Bulkhead.current();
+    }
+}
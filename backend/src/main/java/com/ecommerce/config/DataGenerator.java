@@ -0,0 +1,255 @@
+package com.ecommerce.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Genera un dataset sintético de gran tamaño para pruebas de rendimiento.
+// Cada bloque de filas usa su propio generador derivado de la semilla, así que el resultado
+// es idéntico sin importar la cantidad de hilos.
+// Uso: mvn spring-boot:run -Dspring-boot.run.profiles=datagen -Dspring-boot.run.arguments="--datagen.products=2000000"
+@Component
+@Profile("datagen")
+@Order(Integer.MAX_VALUE)
+public class DataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String[] FIRST_NAMES = {
+        "Juan", "María", "Carlos", "Ana", "Lucía", "Martín", "Sofía", "Diego", "Valentina", "Pablo",
+        "Camila", "Javier", "Florencia", "Nicolás", "Agustina", "Matías", "Julieta", "Tomás", "Paula", "Federico"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Pérez", "García", "López", "Martínez", "González", "Rodríguez", "Fernández", "Gómez", "Díaz", "Sosa",
+        "Romero", "Álvarez", "Torres", "Ruiz", "Ramírez", "Flores", "Acosta", "Benítez", "Medina", "Herrera"
+    };
+
+    private static final LocalDateTime CREATED_FROM = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int MAX_CART_LINES = 5;
+
+    private static final int TABLE_PRODUCTS = 1;
+    private static final int TABLE_USERS = 2;
+    private static final int TABLE_CARTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.categories:50}")
+    private int categories;
+
+    @Value("${datagen.products:1000000}")
+    private int products;
+
+    @Value("${datagen.users:100000}")
+    private int users;
+
+    // Proporción de usuarios con carrito no vacío
+    @Value("${datagen.cart-ratio:0.3}")
+    private double cartRatio;
+
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${datagen.threads:0}")
+    private int threads;
+
+    // Todos los usuarios generados comparten la misma contraseña: un solo hash BCrypt
+    @Value("${datagen.password:password123}")
+    private String password;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.nanoTime();
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<String> categoryIds = generateCategories();
+            long productBase = nextId("products", "products_seq");
+            long userBase = nextId("users", "users_seq");
+            long cartBase = nextId("cart_items", "cart_items_seq");
+
+            // Stock de cada producto generado: las líneas de carrito no pueden superarlo
+            int[] stocks = new int[products];
+            runChunks(executor, "productos", products,
+                    (chunk, from, to) -> insertProducts(chunk, from, to, productBase, categoryIds, stocks));
+            String passwordHash = passwordEncoder.encode(password);
+            runChunks(executor, "usuarios", users, (chunk, from, to) -> insertUsers(chunk, from, to, userBase, passwordHash));
+            runChunks(executor, "carritos", users,
+                    (chunk, from, to) -> insertCarts(chunk, from, to, cartBase, userBase, productBase, stocks));
+
+            resetSequence("products", "products_seq");
+            resetSequence("users", "users_seq");
+            resetSequence("cart_items", "cart_items_seq");
+        } finally {
+            executor.shutdown();
+        }
+
+        logger.info("Dataset generado en {} s (semilla {}, {} categorías, {} productos, {} usuarios)",
+                (System.nanoTime() - start) / 1_000_000_000, seed, categories, products, users);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private List<String> generateCategories() {
+        List<String> ids = new ArrayList<>(categories);
+        List<Object[]> rows = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            String id = String.format("gen-%03d", i + 1);
+            String name = SyntheticText.categoryName(i);
+            ids.add(id);
+            rows.add(new Object[] {id, name, "Categoría generada: " + name});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO categories (id, name, description) VALUES (?, ?, ?) ON CONFLICT (id) DO NOTHING", rows);
+        return ids;
+    }
+
+    private void insertProducts(int chunk, int from, int to, long idBase, List<String> categoryIds, int[] stocks) {
+        SplittableRandom random = randomFor(TABLE_PRODUCTS, chunk);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            String name = SyntheticText.productName(random);
+            String description = SyntheticText.description(random, name);
+            double price = SyntheticText.price(random);
+            stocks[i] = SyntheticText.stock(random);
+            rows.add(new Object[] {
+                idBase + i,
+                name,
+                description,
+                price,
+                stocks[i],
+                categoryIds.get(SyntheticText.zipf(random, categoryIds.size())),
+                "https://picsum.photos/300/200?random=" + (idBase + i)
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, description, price, stock, category, image_url, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)", rows);
+    }
+
+    private void insertUsers(int chunk, int from, int to, long idBase, String passwordHash) {
+        SplittableRandom random = randomFor(TABLE_USERS, chunk);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            long id = idBase + i;
+            rows.add(new Object[] {
+                id,
+                "gen_user_" + id,
+                "gen_user_" + id + "@example.com",
+                passwordHash,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                "user",
+                Timestamp.valueOf(CREATED_FROM.plusSeconds(random.nextLong(2L * 365 * 24 * 3600))),
+                random.nextInt(50) != 0
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, username, email, password, first_name, last_name, role, created_at, is_active) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertCarts(int chunk, int from, int to, long idBase, long userBase, long productBase, int[] stocks) {
+        if (products == 0) {
+            return;
+        }
+        SplittableRandom random = randomFor(TABLE_CARTS, chunk);
+        List<Object[]> rows = new ArrayList<>();
+        Set<Integer> chosen = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            if (random.nextDouble() >= cartRatio) {
+                continue;
+            }
+            int lines = Math.min(products, 1 + SyntheticText.zipf(random, MAX_CART_LINES));
+            chosen.clear();
+            for (int line = 0; line < lines; line++) {
+                // Los productos populares aparecen en muchos carritos, como en producción
+                int product = SyntheticText.zipf(random, products);
+                int quantity = 1 + random.nextInt(3);
+                // Un producto agotado no puede estar en un carrito, ni una línea superar el stock
+                if (stocks[product] == 0 || !chosen.add(product)) {
+                    continue;
+                }
+                rows.add(new Object[] {
+                    idBase + (long) i * MAX_CART_LINES + line,
+                    userBase + i,
+                    productBase + product,
+                    Math.min(quantity, stocks[product])
+                });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO cart_items (id, user_id, product_id, quantity) VALUES (?, ?, ?, ?)", rows);
+        }
+    }
+
+    private void runChunks(ExecutorService executor, String label, int total, ChunkTask task) throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        int chunks = (total + batchSize - 1) / batchSize;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            int from = chunk * batchSize;
+            int to = Math.min(total, from + batchSize);
+            futures.add(executor.submit(() -> task.insert(index, from, to)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        logger.info("{}: {} filas en {} s", label, total, String.format("%.1f", seconds));
+    }
+
+    private SplittableRandom randomFor(int table, int chunk) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + table * 1_000_003L + chunk);
+    }
+
+    // Primer id libre sin pisar bloques que la aplicación ya haya reservado de la secuencia
+    private long nextId(String table, String sequence) {
+        Long next = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(COALESCE((SELECT MAX(id) FROM " + table + "), 0), "
+                        + "(SELECT last_value + increment_by FROM pg_sequences WHERE sequencename = ?)) + 1",
+                Long.class, sequence);
+        return next != null ? next : 1L;
+    }
+
+    private void resetSequence(String table, String sequence) {
+        jdbcTemplate.queryForObject(
+                "SELECT setval('" + sequence + "', COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)",
+                Long.class);
+    }
+
+    private interface ChunkTask {
+        void insert(int chunk, int from, int to);
+    }
+}
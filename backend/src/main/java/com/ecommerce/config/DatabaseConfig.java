@@ -1,35 +1,177 @@
 package com.ecommerce.config;
 
+import com.ecommerce.bulkhead.Bulkhead;
+import com.ecommerce.monitoring.ProfilingDataSource;
+import com.ecommerce.monitoring.SqlStatistics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class DatabaseConfig {
 
+    private static final long CONNECTION_TIMEOUT_MS = 20000;
+    // Con el semáforo de hilos virtuales delante, quien pasa tiene una conexión casi segura: el pool espera poco y
+    // el semáforo usa el resto del presupuesto, así la espera total no supera CONNECTION_TIMEOUT_MS
+    private static final long PERMITTED_CONNECTION_TIMEOUT_MS = 5000;
+
+    // El perfil dev usa H2 en memoria con el mismo DatabaseConfig
+    @Value("${app.datasource.driver-class-name:org.postgresql.Driver}")
+    private String driverClassName;
+
+    @Value("${app.datasource.primary.url:jdbc:postgresql://localhost:5433/ecommerce}")
+    private String primaryUrl;
+
+    @Value("${app.datasource.primary.username:postgres}")
+    private String primaryUsername;
+
+    @Value("${app.datasource.primary.password:postgres}")
+    private String primaryPassword;
+
+    @Value("${app.datasource.primary.maximum-pool-size:5}")
+    private int primaryPoolSize;
+
+    // Sin URL de réplica todas las lecturas van al primario
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:postgres}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:postgres}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    // -1 permite levantar el contexto sin base de datos (entrenamiento del archivo CDS)
+    @Value("${app.datasource.initialization-fail-timeout:1}")
+    private long initializationFailTimeout;
+
+    // Reemplaza a show-sql: mide cada sentencia por huella y loguea solo las lentas o una muestra
+    @Value("${monitoring.sql.enabled:true}")
+    private boolean sqlProfilingEnabled;
+
+    // Con hilos virtuales un semáforo por pool acota cuántas requests piden conexión a la vez
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Un pool del primario por compartimento además del compartido (app.datasource.primary.maximum-pool-size)
+    @Value("${bulkhead.enabled:true}")
+    private boolean bulkheadsEnabled;
+
+    // Se lee en runtime: con AOT spring.flyway.enabled quedó fijado en el build y ya no apaga Flyway
+    @Value("${app.flyway.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private SqlStatistics sqlStatistics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     @Primary
     public DataSource dataSource() {
+        DataSource dataSource = routedDataSource();
+        return sqlProfilingEnabled ? new ProfilingDataSource(dataSource, sqlStatistics) : dataSource;
+    }
+
+    // El entrenamiento del archivo CDS levanta el contexto sin base de datos: Flyway no migra
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    private DataSource routedDataSource() {
+        DataSource primary = bulkheadsEnabled ? partitionedPrimary()
+                : createPool("ecommerce-pool", primaryUrl, primaryUsername, primaryPassword, primaryPoolSize);
+        if (replicaUrl.isBlank()) {
+            return primary;
+        }
+
+        DataSource replica = createPool("ecommerce-replica-pool", replicaUrl, replicaUsername, replicaPassword, replicaPoolSize);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.Route.PRIMARY, primary);
+        targets.put(ReadWriteRoutingDataSource.Route.REPLICA, replica);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        // La conexión real se pide recién en la primera sentencia, cuando ya se sabe si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private DataSource partitionedPrimary() {
+        DataSource shared = createPool("ecommerce-pool", primaryUrl, primaryUsername, primaryPassword, primaryPoolSize);
+        Map<Object, Object> targets = new HashMap<>();
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            int poolSize = environment.getProperty("bulkhead." + bulkhead.getKey() + ".pool-size", Integer.class,
+                    bulkhead.getPoolSize());
+            targets.put(bulkhead, createPool("ecommerce-pool-" + bulkhead.getKey(),
+                    primaryUrl, primaryUsername, primaryPassword, poolSize));
+        }
+        BulkheadRoutingDataSource routing = new BulkheadRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shared);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private DataSource createPool(String poolName, String url, String username, String password, int maximumPoolSize) {
         HikariConfig config = new HikariConfig();
-        config.setDriverClassName("org.postgresql.Driver");
+        config.setDriverClassName(driverClassName);
         // Configurar para usar zona horaria de Argentina
-        config.setJdbcUrl("jdbc:postgresql://localhost:5433/ecommerce");
-        config.setUsername("postgres");
-        config.setPassword("postgres");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
         
         // Configuraciones de conexión
-        config.setConnectionTimeout(20000);
-        config.setMaximumPoolSize(5);
-        config.setPoolName("ecommerce-pool");
+        config.setConnectionTimeout(virtualThreads ? PERMITTED_CONNECTION_TIMEOUT_MS : CONNECTION_TIMEOUT_MS);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setPoolName(poolName);
+        config.setInitializationFailTimeout(initializationFailTimeout);
+        // Gauges hikaricp.* por pool (activas, ociosas, en espera, tiempo de adquisición); incluye el de réplica
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         
         // Propiedades para zona horaria de Argentina
         config.addDataSourceProperty("ApplicationName", "ecommerce-app");
         config.addDataSourceProperty("assumeMinServerVersion", "9.0");
+        // El driver reescribe los lotes de INSERT como un único INSERT multi-fila
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         
-        return new HikariDataSource(config);
+        HikariDataSource pool = new HikariDataSource(config);
+        if (!virtualThreads) {
+            return pool;
+        }
+        ConnectionPermitDataSource limited = new ConnectionPermitDataSource(pool, maximumPoolSize,
+                CONNECTION_TIMEOUT_MS - PERMITTED_CONNECTION_TIMEOUT_MS);
+        Gauge.builder("db.connection.permits.waiting", limited, ConnectionPermitDataSource::getQueueLength)
+                .description("Hilos esperando permiso para pedir una conexión")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        return limited;
     }
 }
@@ -0,0 +1,128 @@
+package com.ecommerce.config;
+
+import com.ecommerce.model.IdentityProduct;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Mide el throughput de INSERT de productos por JPA: IDENTITY (el mapeo anterior a V2, con IdentityProduct)
+// contra secuencia pooled-lo y lotes JDBC (Product). Mismos lotes por transacción en los dos casos.
+// Uso: mvn spring-boot:run -Dspring-boot.run.profiles=insert-benchmark
+@Component
+@Profile("insert-benchmark")
+@Order(Integer.MAX_VALUE)
+public class InsertBenchmarkRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBenchmarkRunner.class);
+    private static final String CATEGORY = "benchmark";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${benchmark.insert.rows:100000}")
+    private int rows;
+
+    @Value("${benchmark.insert.chunk:1000}")
+    private int chunk;
+
+    @Override
+    public void run(String... args) {
+        report("JPA con IDENTITY", insertIdentity());
+        cleanUp();
+        report("JPA con secuencia y lotes", insertBatched());
+        cleanUp();
+    }
+
+    private long insertIdentity() {
+        // V2 quitó el DEFAULT de products.id; mientras dura la medición la base vuelve a generar la clave como
+        // antes. Cada nextval reserva un bloque de 50, así que no pisa los bloques pooled-lo de Product.
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq')");
+        try {
+            long start = System.nanoTime();
+            for (int offset = 0; offset < rows; offset += chunk) {
+                int from = offset;
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = from; i < Math.min(from + chunk, rows); i++) {
+                        // Con IDENTITY Hibernate ejecuta el INSERT en persist() para leer el id: una fila por viaje
+                        entityManager.persist(createIdentityProduct(i));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            }
+            return System.nanoTime() - start;
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id DROP DEFAULT");
+        }
+    }
+
+    private long insertBatched() {
+        long start = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += chunk) {
+            int from = offset;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> products = new ArrayList<>(chunk);
+                for (int i = from; i < Math.min(from + chunk, rows); i++) {
+                    products.add(createProduct(i));
+                }
+                productRepository.saveAll(products);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Product createProduct(int index) {
+        Product product = new Product();
+        product.setName("Producto " + index);
+        product.setDescription("Descripción del producto " + index);
+        product.setPrice(1000.0 + index % 1000);
+        product.setStock(10);
+        product.setCategory(CATEGORY);
+        return product;
+    }
+
+    private IdentityProduct createIdentityProduct(int index) {
+        IdentityProduct product = new IdentityProduct();
+        product.setName("Producto " + index);
+        product.setDescription("Descripción del producto " + index);
+        product.setPrice(1000.0 + index % 1000);
+        product.setStock(10);
+        product.setCategory(CATEGORY);
+        return product;
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products WHERE category = ?", CATEGORY);
+    }
+
+    private void report(String mode, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        logger.info("Inserción de {} productos, {}: {} s, {} filas/s",
+                rows, mode, String.format("%.2f", seconds), String.format("%.0f", rows / seconds));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recuerda qué usuarios escribieron hace poco para que sus lecturas vean su propia escritura
+@Component
+public class ReplicaLagGuard {
+
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    @Value("${app.datasource.replica.read-your-writes-window-ms:5000}")
+    private long windowMillis;
+
+    public void recordWrite(Long userId) {
+        lastWrites.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean requiresPrimary(Long userId) {
+        Long lastWrite = lastWrites.get(userId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.config;
+
+import java.util.SplittableRandom;
+
+// Vocabulario y distribuciones para generar catálogos sintéticos con forma realista:
+// popularidad tipo Zipf, precios log-normales y descripciones de largo variable.
+final class SyntheticText {
+
+    private static final String[] BRANDS = {
+        "Samsung", "Apple", "Sony", "Nike", "Adidas", "Philips", "LG", "Xiaomi", "Lenovo", "Motorola",
+        "Puma", "Topper", "Atma", "Noblex", "Gafa", "Tramontina", "Logitech", "HP", "Dell", "Asus",
+        "Levi's", "Zara", "Natura", "L'Oréal", "Nivea", "Penguin", "Planeta", "Salvat", "Stanley", "Oster"
+    };
+
+    private static final String[] NOUNS = {
+        "Auriculares", "Smartphone", "Notebook", "Tablet", "Monitor", "Teclado", "Mouse", "Parlante",
+        "Zapatillas", "Remera", "Campera", "Jean", "Buzo", "Mochila", "Reloj", "Lámpara", "Silla", "Mesa",
+        "Sofá", "Colchón", "Sartén", "Cafetera", "Licuadora", "Pava eléctrica", "Bicicleta", "Pelota",
+        "Mancuernas", "Colchoneta", "Novela", "Enciclopedia", "Libro de cocina", "Perfume", "Crema facial",
+        "Shampoo", "Set de maquillaje", "Secador de pelo", "Plancha", "Aspiradora", "Ventilador", "Estufa"
+    };
+
+    private static final String[] ADJECTIVES = {
+        "Pro", "Max", "Ultra", "Lite", "Plus", "Classic", "Sport", "Premium", "Compacto", "Inalámbrico",
+        "Ergonómico", "Portátil", "Deluxe", "Eco", "Smart", "Slim", "XL", "Mini", "Edición Limitada", "Urbano"
+    };
+
+    private static final String[] COLORS = {
+        "negro", "blanco", "gris", "azul", "rojo", "verde", "beige", "plateado", "dorado", "rosa"
+    };
+
+    private static final String[] FEATURES = {
+        "batería de larga duración", "materiales reciclados", "garantía oficial de 12 meses",
+        "diseño liviano", "conectividad Bluetooth", "fácil limpieza", "tecnología de bajo consumo",
+        "terminaciones premium", "uso intensivo", "carga rápida", "resistencia al agua",
+        "ajuste regulable", "estructura reforzada", "tela respirable", "acabado mate"
+    };
+
+    private static final String[] CATEGORY_WORDS = {
+        "Electrónica", "Moda", "Hogar", "Deportes", "Libros", "Belleza", "Cocina", "Jardín", "Juguetes",
+        "Oficina", "Mascotas", "Automotor", "Salud", "Música", "Herramientas", "Bebés", "Gaming", "Viajes"
+    };
+
+    private SyntheticText() {}
+
+    // Rango en [0, n) con probabilidad ~1/(rango+1): pocas entradas concentran la mayoría de los accesos
+    static int zipf(SplittableRandom random, int n) {
+        double rank = Math.exp(random.nextDouble() * Math.log(n + 1.0)) - 1.0;
+        return Math.min(n - 1, (int) rank);
+    }
+
+    static String categoryName(int index) {
+        String base = CATEGORY_WORDS[index % CATEGORY_WORDS.length];
+        int round = index / CATEGORY_WORDS.length;
+        return round == 0 ? base : base + " " + (round + 1);
+    }
+
+    static String productName(SplittableRandom random) {
+        StringBuilder name = new StringBuilder(48);
+        name.append(NOUNS[zipf(random, NOUNS.length)]).append(' ')
+            .append(BRANDS[zipf(random, BRANDS.length)]);
+        if (random.nextInt(3) > 0) {
+            name.append(' ').append(ADJECTIVES[random.nextInt(ADJECTIVES.length)]);
+        }
+        if (random.nextBoolean()) {
+            name.append(' ').append(100 + random.nextInt(9900));
+        }
+        return name.toString();
+    }
+
+    // Entre una y cuatro oraciones, recortado al largo de la columna
+    static String description(SplittableRandom random, String name) {
+        StringBuilder text = new StringBuilder(200);
+        text.append(name).append(" en color ").append(COLORS[random.nextInt(COLORS.length)])
+            .append(", con ").append(FEATURES[random.nextInt(FEATURES.length)]).append('.');
+        int extra = random.nextInt(4);
+        for (int i = 0; i < extra; i++) {
+            String feature = FEATURES[random.nextInt(FEATURES.length)];
+            text.append(' ').append(Character.toUpperCase(feature.charAt(0))).append(feature.substring(1)).append('.');
+        }
+        return text.length() > 255 ? text.substring(0, 255) : text.toString();
+    }
+
+    // Log-normal: mediana ~15.000, con cola larga hacia productos caros
+    static double price(SplittableRandom random) {
+        double price = Math.exp(9.6 + 1.1 * random.nextGaussian());
+        return Math.max(500, Math.round(price / 10.0) * 10.0);
+    }
+
+    // Geométrica: la mayoría con poco stock, algunos con mucho, un 5% agotados
+    static int stock(SplittableRandom random) {
+        if (random.nextInt(20) == 0) {
+            return 0;
+        }
+        return 1 + (int) (-Math.log(1 - random.nextDouble()) * 25);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+// Modo opcional: spring.threads.virtual.enabled=true (perfil virtual-threads, JDK 21).
+// Spring Boot pasa Tomcat y el scheduler a hilos virtuales; las requests (checkout, subida de fotos)
+// bloquean en JDBC o en disco sin ocupar un hilo de plataforma. DatabaseConfig acota la concurrencia
+// contra la base con un semáforo por pool y VirtualThreadPinningMonitor informa los hilos fijados a su carrier.
+// Con AOT (imagen Docker) la condición se evalúa en el build: el modo se elige al generar la imagen.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Un hilo virtual por tarea: el arranque diferido de JPA y el sembrado en segundo plano
+    @Bean(name = "applicationTaskExecutor")
+    public SimpleAsyncTaskExecutor applicationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -1,9 +1,11 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.AuthResponseDTO;
+import com.ecommerce.dto.AvailabilityDTO;
 import com.ecommerce.dto.LoginDTO;
 import com.ecommerce.dto.RegisterDTO;
 import com.ecommerce.service.AuthService;
+import com.ecommerce.service.AvailabilityService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +20,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AvailabilityService availabilityService;
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponseDTO> register(@Valid @RequestBody RegisterDTO registerDTO) {
         AuthResponseDTO response = authService.register(registerDTO);
@@ -29,4 +34,11 @@ public class AuthController {
         AuthResponseDTO response = authService.login(loginDTO);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/available")
+    public ResponseEntity<AvailabilityDTO> checkAvailability(@RequestParam(required = false) String username,
+                                                             @RequestParam(required = false) String email) {
+        AvailabilityDTO availability = availabilityService.checkAvailability(username, email);
+        return ResponseEntity.ok(availability);
+    }
 }
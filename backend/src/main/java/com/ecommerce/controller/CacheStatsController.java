@@ -0,0 +1,30 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.CacheRegionStatsDTO;
+import com.ecommerce.service.CacheStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheStatsController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getStats() {
+        List<CacheRegionStatsDTO> stats = cacheStatisticsService.getRegionStatistics();
+        return ResponseEntity.ok(stats);
+    }
+
+    @DeleteMapping("/stats")
+    public ResponseEntity<Void> clearStats() {
+        cacheStatisticsService.clearStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,13 +3,23 @@ package com.ecommerce.controller;
 import com.ecommerce.dto.CreateProductDTO;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.dto.UpdateProductDTO;
+import com.ecommerce.monitoring.RequestTimings;
+import com.ecommerce.monitoring.ServerTimingJacksonConverter;
+import com.ecommerce.service.CatalogSnapshot;
+import com.ecommerce.service.CatalogSnapshotService;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.stream.ProductChangeBus;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -20,12 +30,52 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ProductChangeBus productChangeBus;
+
+    // Sale del catálogo ya serializado y comprimido, sin consultar ni serializar por request
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String category,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                            String acceptEncoding) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            CatalogSnapshot.Payload payload = category != null ? snapshot.getCategory(category) : snapshot.getAll();
+            boolean gzip = payload.getGzip() != null && CatalogSnapshot.acceptsGzip(acceptEncoding);
+            byte[] body = gzip ? payload.getGzip() : payload.getIdentity();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(body.length)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            // Sin pasar por el convertidor JSON el Server-Timing se agrega acá
+            RequestTimings timings = RequestTimings.current();
+            if (timings.isActive()) {
+                response.header(ServerTimingJacksonConverter.SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+            }
+            return response.body(body);
+        }
+
+        List<ProductDTO> products = category != null
+                ? productService.getProductsByCategory(category)
+                : productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
 
+    // Precio y stock en vivo para las páginas abiertas; EventSource reenvía Last-Event-ID al reconectarse
+    // La respuesta queda abierta en modo asíncrono y la escribe ProductChangeBus sin bloquear
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamProductChanges(@RequestParam List<Long> ids,
+                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        productChangeBus.subscribe(ids, lastEventId, request, response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
         ProductDTO product = productService.getProductById(id);
@@ -0,0 +1,30 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.SqlFingerprintStatsDTO;
+import com.ecommerce.monitoring.SqlStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/sql")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SqlStatsController {
+
+    @Autowired
+    private SqlStatistics sqlStatistics;
+
+    @GetMapping("/top")
+    public ResponseEntity<List<SqlFingerprintStatsDTO>> getTopQueries(@RequestParam(defaultValue = "20") int limit) {
+        List<SqlFingerprintStatsDTO> top = sqlStatistics.getTopByTotalTime(Math.max(limit, 1));
+        return ResponseEntity.ok(top);
+    }
+
+    @DeleteMapping("/stats")
+    public ResponseEntity<Void> clearStats() {
+        sqlStatistics.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
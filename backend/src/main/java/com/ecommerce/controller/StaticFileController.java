@@ -1,36 +1,241 @@
 package com.ecommerce.controller;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import com.ecommerce.storage.BlobStore;
+import com.ecommerce.storage.FileMetadata;
+import com.ecommerce.storage.FileMetadataCache;
+import com.ecommerce.storage.ImageDerivativeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 @RestController
 @RequestMapping("/uploads")
 @CrossOrigin(origins = "http://localhost:3000")
 public class StaticFileController {
 
+    private static final Path PROFILES_DIR = Paths.get("uploads/profiles/").toAbsolutePath().normalize();
+
+    // Los nombres son UUID o el hash del contenido: el contenido de una URL nunca cambia.
+    // private: /uploads requiere autenticación y un caché compartido no debe servir las fotos a cualquiera
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+    // Salvo el original servido en lugar de un derivado que todavía no existe: la misma URL pronto devolverá el derivado
+    private static final String FALLBACK_CACHE_CONTROL = "private, max-age=60";
+
+    // Atributos de Tomcat para delegar el envío en sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FileMetadataCache fileMetadataCache;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    // Fotos anteriores al almacenamiento por contenido
     @GetMapping("/profiles/{filename:.+}")
-    public ResponseEntity<Resource> serveProfilePhoto(@PathVariable String filename) {
+    public void serveProfilePhoto(@PathVariable String filename, @RequestParam(required = false) Integer size,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path filePath = PROFILES_DIR.resolve(filename).normalize();
+        if (!filePath.startsWith(PROFILES_DIR)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(filePath, size, request, response);
+    }
+
+    @GetMapping("/blobs/{shard1}/{shard2}/{filename:.+}")
+    public void serveBlob(@PathVariable String shard1, @PathVariable String shard2, @PathVariable String filename,
+                          @RequestParam(required = false) Integer size,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path filePath;
+        try {
+            filePath = blobStore.localPath(shard1 + "/" + shard2 + "/" + filename);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(filePath, size, request, response);
+    }
+
+    private void serve(Path filePath, Integer size, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        FileMetadata metadata = null;
+        boolean fallback = false;
+        if (size != null && size > 0) {
+            // Mientras el derivado no exista se sirve el original
+            String variant = ImageDerivativeService.variantFileName(
+                    filePath.getFileName().toString(), ImageDerivativeService.selectSize(size));
+            metadata = fileMetadataCache.get(filePath.resolveSibling(variant));
+            fallback = metadata == null;
+        }
+        if (metadata == null) {
+            metadata = fileMetadataCache.get(filePath);
+        }
+        if (metadata == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, metadata.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, metadata.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? FALLBACK_CACHE_CONTROL : CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(request, metadata)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = metadata.getLength();
+        long start = 0;
+        long end = length - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, metadata)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(metadata.getContentType());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + metadata.getPath().getFileName() + "\"");
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat copia del page cache al socket sin pasar por el heap
+            request.setAttribute(SENDFILE_FILENAME, metadata.getPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(metadata.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private boolean isNotModified(HttpServletRequest request, FileMetadata metadata) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesAny(ifNoneMatch, metadata.getEtag());
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && metadata.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // If-None-Match: "*" o una lista de etiquetas separadas por comas, cada una opcionalmente débil (W/).
+    // Se compara con la regla débil, la que corresponde a este encabezado: solo importa el valor entre comillas.
+    static boolean matchesAny(String header, String etag) {
+        String trimmed = header.trim();
+        if (trimmed.equals("*")) {
+            return true;
+        }
+        int i = 0;
+        int length = trimmed.length();
+        while (i < length) {
+            char c = trimmed.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (trimmed.startsWith("W/", i)) {
+                i += 2;
+            }
+            if (i >= length || trimmed.charAt(i) != '"') {
+                // Encabezado mal formado: mejor responder completo que un 304 equivocado
+                return false;
+            }
+            int close = trimmed.indexOf('"', i + 1);
+            if (close < 0) {
+                return false;
+            }
+            if (close - i + 1 == etag.length() && trimmed.regionMatches(i, etag, 0, etag.length())) {
+                return true;
+            }
+            i = close + 1;
+        }
+        return false;
+    }
+
+    private boolean isRangeApplicable(HttpServletRequest request, FileMetadata metadata) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(metadata.getEtag());
+        }
+        long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+        return ifRangeDate != -1 && metadata.getLastModified() / 1000 <= ifRangeDate / 1000;
+    }
+
+    // Devuelve {inicio, fin} para un único rango, {} si se debe ignorar el encabezado
+    // (múltiples rangos o formato desconocido) y null si el rango no es satisfacible
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
         try {
-            Path filePath = Paths.get("uploads/profiles/").resolve(filename);
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
             } else {
-                return ResponseEntity.notFound().build();
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
             }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
         }
     }
 }
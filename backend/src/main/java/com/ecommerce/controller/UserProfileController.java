@@ -1,6 +1,7 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.security.CurrentUser;
 import com.ecommerce.service.UserProfileService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,30 +17,30 @@ public class UserProfileController {
     @Autowired
     private UserProfileService userProfileService;
 
+    @Autowired
+    private CurrentUser currentUser;
+
     @GetMapping("/me")
-    public ResponseEntity<UserDTO> getProfile(@RequestHeader("Authorization") String token) {
-        UserDTO user = userProfileService.getProfile(token);
+    public ResponseEntity<UserDTO> getProfile() {
+        UserDTO user = userProfileService.getProfile(currentUser.getId());
         return ResponseEntity.ok(user);
     }
 
     @PutMapping("/update")
-    public ResponseEntity<UserDTO> updateProfile(@RequestHeader("Authorization") String token, 
-                                                @Valid @RequestBody UpdateProfileDTO updateProfileDTO) {
-        UserDTO updatedUser = userProfileService.updateProfile(token, updateProfileDTO);
+    public ResponseEntity<UserDTO> updateProfile(@Valid @RequestBody UpdateProfileDTO updateProfileDTO) {
+        UserDTO updatedUser = userProfileService.updateProfile(currentUser.getId(), updateProfileDTO);
         return ResponseEntity.ok(updatedUser);
     }
 
     @PostMapping("/upload-photo")
-    public ResponseEntity<PhotoUploadResponseDTO> uploadPhoto(@RequestHeader("Authorization") String token,
-                                                             @RequestParam("photo") MultipartFile file) {
-        PhotoUploadResponseDTO response = userProfileService.uploadPhoto(token, file);
+    public ResponseEntity<PhotoUploadResponseDTO> uploadPhoto(@RequestParam("photo") MultipartFile file) {
+        PhotoUploadResponseDTO response = userProfileService.uploadPhoto(currentUser.getId(), file);
         return ResponseEntity.ok(response);
     }
 
     @PutMapping("/change-password")
-    public ResponseEntity<Void> changePassword(@RequestHeader("Authorization") String token,
-                                              @Valid @RequestBody ChangePasswordDTO changePasswordDTO) {
-        userProfileService.changePassword(token, changePasswordDTO);
+    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordDTO changePasswordDTO) {
+        userProfileService.changePassword(currentUser.getId(), changePasswordDTO);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.PinningSiteDTO;
+import com.ecommerce.monitoring.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/virtual-threads")
+@CrossOrigin(origins = "http://localhost:3000")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadController {
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @GetMapping("/pinning")
+    public ResponseEntity<List<PinningSiteDTO>> getPinningSites() {
+        return ResponseEntity.ok(pinningMonitor.getSites());
+    }
+
+    @DeleteMapping("/pinning")
+    public ResponseEntity<Void> clearPinningSites() {
+        pinningMonitor.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
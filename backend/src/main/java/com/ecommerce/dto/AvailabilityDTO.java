@@ -0,0 +1,19 @@
+package com.ecommerce.dto;
+
+public class AvailabilityDTO {
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+
+    public AvailabilityDTO() {}
+
+    public AvailabilityDTO(Boolean usernameAvailable, Boolean emailAvailable) {
+        this.usernameAvailable = usernameAvailable;
+        this.emailAvailable = emailAvailable;
+    }
+
+    public Boolean getUsernameAvailable() { return usernameAvailable; }
+    public void setUsernameAvailable(Boolean usernameAvailable) { this.usernameAvailable = usernameAvailable; }
+
+    public Boolean getEmailAvailable() { return emailAvailable; }
+    public void setEmailAvailable(Boolean emailAvailable) { this.emailAvailable = emailAvailable; }
+}
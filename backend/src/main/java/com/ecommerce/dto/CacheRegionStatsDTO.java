@@ -0,0 +1,39 @@
+package com.ecommerce.dto;
+
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long elementsInMemory;
+    private double hitRatio;
+
+    public CacheRegionStatsDTO() {}
+
+    public CacheRegionStatsDTO(String region, long hits, long misses, long puts, long elementsInMemory) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.elementsInMemory = elementsInMemory;
+        this.hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getPuts() { return puts; }
+    public void setPuts(long puts) { this.puts = puts; }
+
+    public long getElementsInMemory() { return elementsInMemory; }
+    public void setElementsInMemory(long elementsInMemory) { this.elementsInMemory = elementsInMemory; }
+
+    public double getHitRatio() { return hitRatio; }
+    public void setHitRatio(double hitRatio) { this.hitRatio = hitRatio; }
+}
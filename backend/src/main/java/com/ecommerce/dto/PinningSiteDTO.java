@@ -0,0 +1,36 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+public class PinningSiteDTO {
+    private String site;
+    private long count;
+    private double totalTimeMs;
+    private double maxTimeMs;
+    private List<String> stack;
+
+    public PinningSiteDTO() {}
+
+    public PinningSiteDTO(String site, long count, double totalTimeMs, double maxTimeMs, List<String> stack) {
+        this.site = site;
+        this.count = count;
+        this.totalTimeMs = totalTimeMs;
+        this.maxTimeMs = maxTimeMs;
+        this.stack = stack;
+    }
+
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public double getTotalTimeMs() { return totalTimeMs; }
+    public void setTotalTimeMs(double totalTimeMs) { this.totalTimeMs = totalTimeMs; }
+
+    public double getMaxTimeMs() { return maxTimeMs; }
+    public void setMaxTimeMs(double maxTimeMs) { this.maxTimeMs = maxTimeMs; }
+
+    public List<String> getStack() { return stack; }
+    public void setStack(List<String> stack) { this.stack = stack; }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.dto;
+
+public class ProductChangeDTO {
+    private Long id;
+    private Double price;
+    private Integer stock;
+
+    public ProductChangeDTO() {}
+
+    public ProductChangeDTO(Long id, Double price, Integer stock) {
+        this.id = id;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Integer getStock() { return stock; }
+    public void setStock(Integer stock) { this.stock = stock; }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.dto;
+
+import java.util.Map;
+
+public class SqlFingerprintStatsDTO {
+    private String fingerprint;
+    private long calls;
+    private long errors;
+    private double totalTimeMs;
+    private double meanTimeMs;
+    private double maxTimeMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private long totalRows;
+    private double meanRows;
+    private Map<String, Long> latencyHistogramMs;
+
+    public SqlFingerprintStatsDTO() {}
+
+    public SqlFingerprintStatsDTO(String fingerprint, long calls, long errors, double totalTimeMs, double maxTimeMs,
+                                  double p50Ms, double p95Ms, double p99Ms, long totalRows,
+                                  Map<String, Long> latencyHistogramMs) {
+        this.fingerprint = fingerprint;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalTimeMs = totalTimeMs;
+        this.meanTimeMs = calls == 0 ? 0.0 : totalTimeMs / calls;
+        this.maxTimeMs = maxTimeMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.totalRows = totalRows;
+        this.meanRows = calls == 0 ? 0.0 : (double) totalRows / calls;
+        this.latencyHistogramMs = latencyHistogramMs;
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public long getCalls() { return calls; }
+    public void setCalls(long calls) { this.calls = calls; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public double getTotalTimeMs() { return totalTimeMs; }
+    public void setTotalTimeMs(double totalTimeMs) { this.totalTimeMs = totalTimeMs; }
+
+    public double getMeanTimeMs() { return meanTimeMs; }
+    public void setMeanTimeMs(double meanTimeMs) { this.meanTimeMs = meanTimeMs; }
+
+    public double getMaxTimeMs() { return maxTimeMs; }
+    public void setMaxTimeMs(double maxTimeMs) { this.maxTimeMs = maxTimeMs; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+
+    public double getMeanRows() { return meanRows; }
+    public void setMeanRows(double meanRows) { this.meanRows = meanRows; }
+
+    public Map<String, Long> getLatencyHistogramMs() { return latencyHistogramMs; }
+    public void setLatencyHistogramMs(Map<String, Long> latencyHistogramMs) { this.latencyHistogramMs = latencyHistogramMs; }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.exception;
+
+// Base de las excepciones de negocio. Describen una respuesta 4xx esperable (un id inexistente, credenciales
+// inválidas), no un error de programación: por defecto se crean sin stack trace, que es lo más caro de
+// lanzarlas cuando bots recorren ids al azar o prueban contraseñas. app.exceptions.stack-traces=true
+// los vuelve a capturar para depurar.
+public abstract class DomainException extends RuntimeException {
+
+    private static volatile boolean stackTraces;
+
+    protected DomainException(String message) {
+        super(message, null, false, stackTraces);
+    }
+
+    public static void setStackTraces(boolean enabled) {
+        stackTraces = enabled;
+    }
+
+    public static boolean isStackTraces() {
+        return stackTraces;
+    }
+}
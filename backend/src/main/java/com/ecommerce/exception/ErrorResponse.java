@@ -1,5 +1,12 @@
 package com.ecommerce.exception;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -28,6 +35,23 @@ public class ErrorResponse {
         this.details = details;
     }
 
+    // 503 de los filtros de sobrecarga (limitador de concurrencia y compartimentos): se escribe antes de llegar a
+    // DispatcherServlet, donde GlobalExceptionHandler no interviene
+    public static void writeOverloaded(HttpServletRequest request, HttpServletResponse response,
+                                       ObjectMapper objectMapper) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "El servidor está sobrecargado, intente nuevamente en unos segundos",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
     
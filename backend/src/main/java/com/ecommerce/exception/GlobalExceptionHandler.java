@@ -1,58 +1,75 @@
 package com.ecommerce.exception;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// El camino de error es tan frecuente como el de éxito cuando hay bots: el path sale directo del request
+// (getDescription arma "uri=..." para después recortarlo) y los títulos son constantes
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private static final String NOT_FOUND = "Not Found";
+    private static final String BAD_REQUEST = "Bad Request";
+    private static final String UNAUTHORIZED = "Unauthorized";
+    private static final String CONFLICT = "Conflict";
+    private static final String VALIDATION_FAILED = "Validation Failed";
+    private static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
+
+    private static final String CONFLICT_MESSAGE = "Los datos fueron modificados por otra operación, intente nuevamente";
+    private static final String VALIDATION_MESSAGE = "Los datos proporcionados no son válidos";
+    private static final String INTERNAL_ERROR_MESSAGE = "Ha ocurrido un error interno del servidor";
+
+    @Value("${app.exceptions.stack-traces:false}")
+    private boolean stackTraces;
+
+    @PostConstruct
+    public void configureStackTraces() {
+        DomainException.setStackTraces(stackTraces);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
-            ResourceNotFoundException ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+            ResourceNotFoundException ex, HttpServletRequest request) {
+        return domainError(HttpStatus.NOT_FOUND, NOT_FOUND, ex, request);
     }
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse> handleBadRequestException(
-            BadRequestException ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+            BadRequestException ex, HttpServletRequest request) {
+        return domainError(HttpStatus.BAD_REQUEST, BAD_REQUEST, ex, request);
     }
 
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorizedException(
-            UnauthorizedException ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Unauthorized",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+            UnauthorizedException ex, HttpServletRequest request) {
+        return domainError(HttpStatus.UNAUTHORIZED, UNAUTHORIZED, ex, request);
+    }
+
+    // Versión desactualizada, bloqueo no obtenido o deadlock: la operación se puede reintentar
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailureException(
+            ConcurrencyFailureException ex, HttpServletRequest request) {
+        return error(HttpStatus.CONFLICT, CONFLICT, CONFLICT_MESSAGE, request.getRequestURI());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
-            MethodArgumentNotValidException ex, WebRequest request) {
+            MethodArgumentNotValidException ex, HttpServletRequest request) {
         List<String> details = new ArrayList<>();
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             details.add(error.getField() + ": " + error.getDefaultMessage());
@@ -60,9 +77,9 @@ public class GlobalExceptionHandler {
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
-                "Validation Failed",
-                "Los datos proporcionados no son válidos",
-                request.getDescription(false).replace("uri=", ""),
+                VALIDATION_FAILED,
+                VALIDATION_MESSAGE,
+                request.getRequestURI(),
                 details
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
@@ -70,13 +87,22 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
-            Exception ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                "Ha ocurrido un error interno del servidor",
-                request.getDescription(false).replace("uri=", "")
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+            Exception ex, HttpServletRequest request) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR, INTERNAL_ERROR_MESSAGE,
+                request.getRequestURI());
+    }
+
+    private static ResponseEntity<ErrorResponse> domainError(HttpStatus status, String error, DomainException ex,
+                                                             HttpServletRequest request) {
+        // Solo con stack traces habilitados vale la pena loguear de dónde salió
+        if (DomainException.isStackTraces()) {
+            logger.debug("{} {}", status.value(), request.getRequestURI(), ex);
+        }
+        return error(status, error, ex.getMessage(), request.getRequestURI());
+    }
+
+    // Visible en el paquete para el benchmark del camino de error (src/jmh)
+    static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message, String path) {
+        return new ResponseEntity<>(new ErrorResponse(status.value(), error, message, path), status);
     }
 }
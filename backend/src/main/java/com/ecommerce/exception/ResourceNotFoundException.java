@@ -1,11 +1,12 @@
 package com.ecommerce.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
 
+    // Concatenación en lugar de String.format: es el camino de cada id inexistente
     public ResourceNotFoundException(String resource, String field, Object value) {
-        super(String.format("%s no encontrado con %s: '%s'", resource, field, value));
+        super(resource + " no encontrado con " + field + ": '" + value + "'");
     }
 }
@@ -0,0 +1,70 @@
+package com.ecommerce.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Límite de concurrencia AIMD guiado por la latencia observada: sube de a uno mientras las respuestas llegan
+// dentro del objetivo y el límite se está usando, y se multiplica por backoffRatio cuando una respuesta
+// lo supera o falla. Así converge a la concurrencia que la base aguanta sin encolar.
+class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // ReentrantLock y no synchronized: con hilos virtuales no fija el carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+    private long lastDecreaseNanos;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long startNanos, long latencyNanos, boolean failed) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (failed || latencyNanos > targetLatencyNanos) {
+                // Las respuestas lentas de una misma ráfaga bajan el límite una sola vez:
+                // solo cuentan las requests que empezaron después de la última baja
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                    lastDecreaseNanos = System.nanoTime();
+                }
+            } else if (inFlightBeforeRelease * 2 >= limit) {
+                // Con poco tráfico no hay evidencia de que se aguante más: solo crece si se está usando
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.limiter;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Rechaza con 503 en el acto lo que excede el límite de cada grupo, en lugar de dejarlo esperar 20 s por una
+// conexión del pool: las requests admitidas cumplen su latencia objetivo y el cliente puede reintentar.
+// Va antes de la seguridad para no gastar en el JWT de una request que se descarta.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Value("${limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<EndpointGroup, AimdLimit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+
+    @PostConstruct
+    public void createLimits() {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            AimdLimit limit = new AimdLimit(
+                    property(group, "initial-limit", group.getInitialLimit()),
+                    property(group, "min-limit", group.getMinLimit()),
+                    property(group, "max-limit", group.getMaxLimit()),
+                    property(group, "target-latency-ms", (int) group.getTargetLatencyMs()),
+                    backoffRatio);
+            limits.put(group, limit);
+
+            Gauge.builder("limiter.limit", limit, AimdLimit::getLimit)
+                    .description("Requests concurrentes admitidas por el limitador")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("limiter.inflight", limit, AimdLimit::getInFlight)
+                    .description("Requests en curso")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+            rejections.put(group, Counter.builder("limiter.rejected")
+                    .description("Requests rechazadas con 503 por exceder el límite")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = enabled ? EndpointGroup.of(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AimdLimit limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            rejections.get(group).increment();
+            ErrorResponse.writeOverloaded(request, response, objectMapper);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limit.release(start, System.nanoTime() - start, failed);
+        }
+    }
+
+    private int property(EndpointGroup group, String name, int defaultValue) {
+        return environment.getProperty("limiter." + group.getKey() + "." + name, Integer.class, defaultValue);
+    }
+}
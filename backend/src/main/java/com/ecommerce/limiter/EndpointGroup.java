@@ -0,0 +1,59 @@
+package com.ecommerce.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Grupos con límite de concurrencia propio: una avalancha de logins (BCrypt) no debe frenar al catálogo
+// ni los checkouts quedarse sin lugar detrás de lecturas. Valores por defecto; cada uno se puede
+// cambiar con limiter.<grupo>.initial-limit, min-limit, max-limit y target-latency-ms.
+public enum EndpointGroup {
+    CATALOG("catalog", 20, 4, 200, 100),
+    CART_MUTATION("cart", 10, 2, 100, 150),
+    CHECKOUT("checkout", 5, 1, 50, 300),
+    AUTH("auth", 8, 2, 64, 400);
+
+    private final String key;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMs;
+
+    EndpointGroup(String key, int initialLimit, int minLimit, int maxLimit, long targetLatencyMs) {
+        this.key = key;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMs = targetLatencyMs;
+    }
+
+    public String getKey() { return key; }
+    public int getInitialLimit() { return initialLimit; }
+    public int getMinLimit() { return minLimit; }
+    public int getMaxLimit() { return maxLimit; }
+    public long getTargetLatencyMs() { return targetLatencyMs; }
+
+    // null si la request no pertenece a ningún grupo limitado (administración, perfil, archivos, preflight CORS)
+    public static EndpointGroup of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if ("OPTIONS".equals(method)) {
+            return null;
+        }
+        // El stream SSE libera el hilo apenas se abre: esa latencia no refleja la carga y falsearía el límite
+        if (path.equals("/api/products/stream")) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/cart")) {
+            if (path.equals("/api/cart/checkout")) {
+                return "POST".equals(method) ? CHECKOUT : null;
+            }
+            return "GET".equals(method) ? null : CART_MUTATION;
+        }
+        if ("GET".equals(method) && (path.startsWith("/api/products") || path.startsWith("/api/categories"))) {
+            return CATALOG;
+        }
+        return null;
+    }
+}
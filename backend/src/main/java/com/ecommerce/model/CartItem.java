@@ -3,10 +3,12 @@ package com.ecommerce.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints =
+        @UniqueConstraint(name = "cart_items_user_product_key", columnNames = {"user_id", "product_id"}))
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,6 +22,12 @@ public class CartItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    // Dos cambios concurrentes sobre la misma línea no pueden pisarse: el segundo falla al confirmar.
+    // Sin valor inicial: con null saveAndFlush() inserta la línea nueva en lugar de hacer merge
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -29,4 +37,6 @@ public class CartItem {
     public void setProduct(Product product) { this.product = product; }
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
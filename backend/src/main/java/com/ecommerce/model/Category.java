@@ -1,9 +1,14 @@
 package com.ecommerce.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+// Casi nunca cambian; NONSTRICT porque READ_ONLY rechazaría el PUT de categorías
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Category {
     @Id
     private String id;
@@ -0,0 +1,47 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+
+// Solo para InsertBenchmarkRunner: la misma tabla que Product pero con la clave generada por la base (IDENTITY),
+// como estaba mapeado Product antes de V2. Hibernate inserta de a una fila para leer cada id y no arma lotes.
+// Sin version: la columna toma su DEFAULT 0.
+@Entity
+@Table(name = "products")
+public class IdentityProduct {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    private Double price;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(nullable = false)
+    private String category;
+
+    private String imageUrl;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+    public Integer getStock() { return stock; }
+    public void setStock(Integer stock) { this.stock = stock; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+}
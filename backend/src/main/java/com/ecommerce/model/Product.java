@@ -1,12 +1,17 @@
 package com.ecommerce.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,6 +31,13 @@ public class Product {
 
     private String imageUrl;
 
+    // Bloqueo optimista: una edición del admin y un checkout sobre el mismo producto ya no se pisan; el segundo
+    // en confirmar falla con conflicto (409, GlobalExceptionHandler) y se reintenta. Sin valor inicial: null marca
+    // una entidad nueva para save() y Hibernate la inserta con versión 0
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -41,4 +53,6 @@ public class Product {
     public void setCategory(String category) { this.category = category; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -8,7 +8,8 @@ import java.util.*;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -38,6 +39,10 @@ public class User {
     @Column
     private String profilePhoto;
 
+    // Tamaños de los derivados ya generados para profilePhoto, p. ej. "48,128,512"
+    @Column
+    private String profilePhotoSizes;
+
     // Constructors
     public User() {}
 
@@ -82,4 +87,7 @@ public class User {
     
     public String getProfilePhoto() { return profilePhoto; }
     public void setProfilePhoto(String profilePhoto) { this.profilePhoto = profilePhoto; }
+
+    public String getProfilePhotoSizes() { return profilePhotoSizes; }
+    public void setProfilePhotoSizes(String profilePhotoSizes) { this.profilePhotoSizes = profilePhotoSizes; }
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Un evento por acceso: la configuración continua (ecommerce.jfc) lo deja apagado y usa CacheStatisticsEvent
+@Name("com.ecommerce.CacheAccess")
+@Label("Cache Access")
+@Category({"E-commerce", "Caché"})
+@Description("Acierto o fallo en un caché de la aplicación")
+@StackTrace(false)
+public class CacheAccessEvent extends Event {
+
+    @Label("Caché")
+    String cache;
+
+    @Label("Acierto")
+    boolean hit;
+
+    public static void emit(String cache, boolean hit) {
+        CacheAccessEvent event = new CacheAccessEvent();
+        if (event.isEnabled()) {
+            event.cache = cache;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
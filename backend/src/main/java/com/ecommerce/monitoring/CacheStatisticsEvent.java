@@ -0,0 +1,36 @@
+package com.ecommerce.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+// Emitido periódicamente por JfrPeriodicEvents con los contadores acumulados de cada caché
+@Name("com.ecommerce.CacheStatistics")
+@Label("Cache Statistics")
+@Category({"E-commerce", "Caché"})
+@Description("Aciertos y fallos acumulados por caché")
+@Period("10 s")
+@StackTrace(false)
+public class CacheStatisticsEvent extends Event {
+
+    @Label("Caché")
+    String cache;
+
+    @Label("Aciertos")
+    long hits;
+
+    @Label("Fallos")
+    long misses;
+
+    static void emit(String cache, long hits, long misses) {
+        CacheStatisticsEvent event = new CacheStatisticsEvent();
+        event.cache = cache;
+        event.hits = hits;
+        event.misses = misses;
+        event.commit();
+    }
+}
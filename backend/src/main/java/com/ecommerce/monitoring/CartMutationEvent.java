@@ -0,0 +1,40 @@
+package com.ecommerce.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ecommerce.CartMutation")
+@Label("Cart Mutation")
+@Category({"E-commerce", "Carrito"})
+@Description("Alta, modificación o baja de items del carrito")
+@StackTrace(false)
+public class CartMutationEvent extends Event {
+
+    @Label("Operación")
+    String operation;
+
+    @Label("Usuario")
+    long userId;
+
+    // 0 cuando la operación no es sobre un producto puntual (vaciar carrito)
+    @Label("Producto")
+    long productId;
+
+    @Label("Cantidad")
+    int quantity;
+
+    public void finish(String operation, long userId, long productId, int quantity) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.userId = userId;
+            this.productId = productId;
+            this.quantity = quantity;
+            commit();
+        }
+    }
+}
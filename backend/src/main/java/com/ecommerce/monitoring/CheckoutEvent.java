@@ -0,0 +1,40 @@
+package com.ecommerce.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Uso: event.begin() al entrar y finish(...) en cada salida; si JFR no graba, finish no hace nada
+@Name("com.ecommerce.Checkout")
+@Label("Checkout")
+@Category({"E-commerce", "Carrito"})
+@Description("Confirmación de compra del carrito")
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+
+    @Label("Usuario")
+    long userId;
+
+    @Label("Líneas")
+    int lines;
+
+    @Label("Total")
+    double total;
+
+    @Label("Resultado")
+    String outcome;
+
+    public void finish(long userId, int lines, double total, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.lines = lines;
+            this.total = total;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.monitoring;
+
+import com.ecommerce.storage.FileMetadataCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jdk.jfr.FlightRecorder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// JFR invoca el hook solo mientras hay una grabación con CacheStatistics habilitado
+@Component
+public class JfrPeriodicEvents {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FileMetadataCache fileMetadataCache;
+
+    private final Runnable cacheStatisticsHook = this::emitCacheStatistics;
+
+    @PostConstruct
+    public void register() {
+        FlightRecorder.addPeriodicEvent(CacheStatisticsEvent.class, cacheStatisticsHook);
+    }
+
+    @PreDestroy
+    public void unregister() {
+        FlightRecorder.removePeriodicEvent(cacheStatisticsHook);
+    }
+
+    private void emitCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CacheStatisticsEvent.emit("hibernate-l2", statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        CacheStatisticsEvent.emit("hibernate-query", statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        CacheStatisticsEvent.emit("file-metadata", fileMetadataCache.getHitCount(), fileMetadataCache.getMissCount());
+    }
+}
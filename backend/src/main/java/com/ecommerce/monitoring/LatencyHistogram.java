@@ -0,0 +1,57 @@
+package com.ecommerce.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma logarítmico sin bloqueos: el bucket i cuenta latencias en [2^(i-1), 2^i) microsegundos
+class LatencyHistogram {
+
+    // El último bucket (~33 s en adelante) absorbe todo lo que lo supera
+    private static final int BUCKETS = 26;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        long micros = nanos / 1_000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        counts.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+    }
+
+    // Devuelve el límite superior del bucket que contiene el percentil: sobreestima como mucho al doble
+    double percentileMillis(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBoundMillis(i);
+            }
+        }
+        return upperBoundMillis(BUCKETS - 1);
+    }
+
+    // Solo los buckets con datos, indexados por su límite superior en milisegundos
+    Map<String, Long> snapshot() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                String bound = i == BUCKETS - 1 ? "+Inf" : String.valueOf(upperBoundMillis(i));
+                buckets.put(bound, count);
+            }
+        }
+        return buckets;
+    }
+
+    private static double upperBoundMillis(int bucket) {
+        return (1L << bucket) / 1_000.0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.ecommerce.Login")
+@Label("Login")
+@Category({"E-commerce", "Autenticación"})
+@Description("Inicio de sesión; incluye el tiempo de verificación del hash BCrypt")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Verificación del hash")
+    @Timespan(Timespan.NANOSECONDS)
+    long hashDuration;
+
+    @Label("Resultado")
+    String outcome;
+
+    public void finish(long hashNanos, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.hashDuration = hashNanos;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
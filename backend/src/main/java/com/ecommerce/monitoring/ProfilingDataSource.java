@@ -0,0 +1,193 @@
+package com.ecommerce.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Envuelve conexiones, sentencias y result sets para medir cada ejecución por huella de SQL.
+// Las consultas se registran al cerrar el ResultSet, cuando ya se conoce la cantidad de filas.
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlStatistics statistics;
+
+    public ProfilingDataSource(DataSource target, SqlStatistics statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // El pool y el manejo de transacciones comparan conexiones: la identidad es la del proxy
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private String batchSql;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("addBatch") && args != null && args.length == 1 && batchSql == null) {
+                    batchSql = (String) args[0];
+                } else if (name.equals("close")) {
+                    completeOpenResultSet();
+                }
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+
+            // Statement.execute*(sql) trae el SQL como argumento; PreparedStatement lo recibió al prepararse
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            if (executedSql == null) {
+                executedSql = batchSql;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = ProfilingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                RequestTimings.record(RequestTimings.Phase.DB, start);
+                statistics.record(executedSql, System.nanoTime() - start, 0, true);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            RequestTimings.add(RequestTimings.Phase.DB, elapsed);
+
+            if (result instanceof ResultSet) {
+                completeOpenResultSet();
+                openResultSet = new ResultSetHandler((ResultSet) result, executedSql, elapsed);
+                return proxy(ResultSet.class, openResultSet);
+            }
+            statistics.record(executedSql, elapsed, affectedRows(result), false);
+            if (name.endsWith("Batch")) {
+                batchSql = null;
+            }
+            return result;
+        }
+
+        private void completeOpenResultSet() {
+            if (openResultSet != null) {
+                openResultSet.complete();
+                openResultSet = null;
+            }
+        }
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final long executionNanos;
+        private long rows;
+        private boolean completed;
+
+        ResultSetHandler(ResultSet target, String sql, long executionNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.executionNanos = executionNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+            } else if (name.equals("close")) {
+                complete();
+            }
+            return result;
+        }
+
+        // Se registra el tiempo de ejecución, no el de recorrido: ese depende de lo que haga el llamador con cada fila
+        void complete() {
+            if (!completed) {
+                completed = true;
+                statistics.record(sql, executionNanos, rows, false);
+            }
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long total = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                total += Math.max(count, 0);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Tiempo acumulado por fase de la request en curso. ServerTimingFilter toma una instancia de un pool al empezar
+// la request y la devuelve al terminar: con un hilo virtual por request tampoco se asignan arreglos nuevos,
+// y medir una fase no asigna memoria. Fuera de una request no registra nada.
+public final class RequestTimings {
+
+    // Las descripciones van sin tildes: terminan en un header HTTP
+    public enum Phase {
+        JWT("jwt", "Parseo del JWT"),
+        USER_LOOKUP("user", "Busqueda del usuario autenticado"),
+        DB("db", "Sentencias SQL"),
+        MAPPING("map", "Conversion a DTO"),
+        SERIALIZATION("ser", "Serializacion JSON");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() { return metricName; }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    // Más requests simultáneas que esto crean instancias que no vuelven al pool
+    private static final int POOL_SIZE = 512;
+
+    // ArrayBlockingQueue no asigna un nodo por elemento como ConcurrentLinkedQueue
+    private static final ArrayBlockingQueue<RequestTimings> FREE = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    // Lo que ve quien pregunta fuera de una request: nunca activo
+    private static final RequestTimings INACTIVE = new RequestTimings();
+
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private long startNanos;
+    private boolean active;
+
+    private RequestTimings() {}
+
+    public static RequestTimings current() {
+        RequestTimings timings = CURRENT.get();
+        return timings != null ? timings : INACTIVE;
+    }
+
+    // Uso: long start = System.nanoTime(); ...; RequestTimings.record(Phase.DB, start);
+    public static void record(Phase phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += System.nanoTime() - startNanos;
+            timings.counts[phase.ordinal()]++;
+        }
+    }
+
+    public static void add(Phase phase, long elapsedNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += elapsedNanos;
+            timings.counts[phase.ordinal()]++;
+        }
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = FREE.poll();
+        if (timings == null) {
+            timings = new RequestTimings();
+        }
+        Arrays.fill(timings.nanos, 0L);
+        Arrays.fill(timings.counts, 0);
+        timings.startNanos = System.nanoTime();
+        timings.active = true;
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    // set(null) en lugar de remove(): un hilo de plataforma conserva su entrada del ThreadLocal para la próxima request
+    void end() {
+        active = false;
+        CURRENT.set(null);
+        FREE.offer(this);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int count(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    // Formato Server-Timing: "jwt;dur=0.21, db;dur=3.40;desc="Sentencias SQL (4)", total;dur=12.80"
+    public String toServerTimingHeader() {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.metricName).append(";dur=");
+            appendMillis(header, nanos[phase.ordinal()]);
+            header.append(";desc=\"").append(phase.description);
+            if (count > 1) {
+                header.append(" (").append(count).append(')');
+            }
+            header.append("\", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, elapsedNanos());
+        return header.toString();
+    }
+
+    // Dos decimales sin pasar por String.format
+    static void appendMillis(StringBuilder out, long nanos) {
+        long hundredths = nanos / 10_000;
+        out.append(hundredths / 100).append('.');
+        long decimals = hundredths % 100;
+        if (decimals < 10) {
+            out.append('0');
+        }
+        out.append(decimals);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Abre la medición por fases antes que cualquier otro filtro (incluida la seguridad).
+// El header Server-Timing lo escribe ServerTimingJacksonConverter, que es quien sabe cuándo se confirma la respuesta;
+// la serialización termina después de enviarlo y solo aparece en el log de requests lentas.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger slowRequestLogger = LoggerFactory.getLogger("com.ecommerce.request.slow");
+
+    @Value("${monitoring.request.server-timing-enabled:true}")
+    private boolean enabled;
+
+    @Value("${monitoring.request.latency-budget-ms:500}")
+    private long latencyBudgetMs;
+
+    // Fracción de las requests que superan el presupuesto que se loguean
+    @Value("${monitoring.request.slow-log-sample-rate:1.0}")
+    private double slowLogSampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedNanos = timings.elapsedNanos();
+            if (elapsedNanos / 1_000_000 >= latencyBudgetMs
+                    && ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                logSlowRequest(request, response, timings, elapsedNanos);
+            }
+            timings.end();
+        }
+    }
+
+    private void logSlowRequest(HttpServletRequest request, HttpServletResponse response,
+                                RequestTimings timings, long elapsedNanos) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("request_slow method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=");
+        RequestTimings.appendMillis(line, elapsedNanos);
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            line.append(' ').append(phase.getMetricName()).append("_ms=");
+            RequestTimings.appendMillis(line, timings.nanos(phase));
+            line.append(' ').append(phase.getMetricName()).append("_count=").append(timings.count(phase));
+        }
+        slowRequestLogger.warn(line.toString());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Agrega Server-Timing antes de que se confirmen los headers y serializa directo a la respuesta, sin buffer
+// intermedio: una lista grande no se copia en memoria. El header lleva las fases hasta ese momento; la
+// serialización ("ser") se registra igual y aparece en el log de requests lentas.
+public class ServerTimingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    public ServerTimingJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTimings timings = RequestTimings.current();
+        if (!timings.isActive()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        outputMessage.getHeaders().set(SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+        long start = System.nanoTime();
+        super.writeInternal(object, type, outputMessage);
+        RequestTimings.record(RequestTimings.Phase.SERIALIZATION, start);
+    }
+}
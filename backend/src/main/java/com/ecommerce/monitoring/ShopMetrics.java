@@ -0,0 +1,93 @@
+package com.ecommerce.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+// Métricas de negocio; los timers HTTP y del pool los registra Spring Boot
+@Component
+public class ShopMetrics {
+
+    private final MeterRegistry registry;
+    private final DistributionSummary checkoutLines;
+    private final DistributionSummary checkoutUnits;
+    private final DistributionSummary checkoutAmount;
+
+    public ShopMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.checkoutLines = DistributionSummary.builder("shop.checkout.lines")
+                .description("Productos distintos por compra")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.checkoutUnits = DistributionSummary.builder("shop.checkout.units")
+                .description("Unidades por compra")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.checkoutAmount = DistributionSummary.builder("shop.checkout.amount")
+                .description("Importe total por compra")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public Timer.Sample startCheckout() {
+        return Timer.start(registry);
+    }
+
+    public void checkoutCompleted(Timer.Sample sample, int lines, int units, double total) {
+        sample.stop(checkoutTimer("success", "none"));
+        checkoutLines.record(lines);
+        checkoutUnits.record(units);
+        checkoutAmount.record(total);
+    }
+
+    public void checkoutFailed(Timer.Sample sample, String reason) {
+        sample.stop(checkoutTimer("failure", reason));
+        Counter.builder("shop.checkout.failures")
+                .description("Compras rechazadas por motivo")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void loginSucceeded() {
+        loginCounter("success", "none").increment();
+    }
+
+    public void loginFailed(String reason) {
+        loginCounter("failure", reason).increment();
+    }
+
+    public void registrationCompleted() {
+        registrationCounter("success", "none").increment();
+    }
+
+    public void registrationFailed(String reason) {
+        registrationCounter("failure", reason).increment();
+    }
+
+    // Micrometer devuelve el mismo medidor para el mismo nombre y tags, no se duplican
+    private Timer checkoutTimer(String outcome, String reason) {
+        return Timer.builder("shop.checkout")
+                .description("Duración del checkout")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter loginCounter(String outcome, String reason) {
+        return Counter.builder("shop.auth.login")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private Counter registrationCounter(String outcome, String reason) {
+        return Counter.builder("shop.auth.register")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
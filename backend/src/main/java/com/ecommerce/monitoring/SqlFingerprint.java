@@ -0,0 +1,141 @@
+package com.ecommerce.monitoring;
+
+// Normaliza una sentencia SQL: literales y parámetros pasan a ?, las listas IN se colapsan
+// y los espacios se unifican, para agrupar todas las ejecuciones de la misma consulta
+final class SqlFingerprint {
+
+    private SqlFingerprint() {}
+
+    static String of(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        boolean pendingSpace = false;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = skipLineComment(sql, i);
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i);
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                i = skipStringLiteral(sql, i);
+                out.append('?');
+            } else if (isNumberStart(sql, i, out)) {
+                i = skipNumber(sql, i);
+                out.append('?');
+            } else if (c == '$' && i + 1 < length && Character.isDigit(sql.charAt(i + 1))) {
+                // Parámetros posicionales de PostgreSQL ($1, $2...)
+                i = skipNumber(sql, i + 1);
+                out.append('?');
+            } else if (Character.isLetter(c) || c == '_' || c == '"') {
+                int start = i;
+                i++;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '.' || sql.charAt(i) == '"')) {
+                    i++;
+                }
+                appendLowerCase(out, sql, start, i);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return collapseInLists(out);
+    }
+
+    // "(?, ?, ?)" y "(?)" quedan como "(?+)": IN con distinta cantidad de elementos es la misma consulta
+    private static String collapseInLists(StringBuilder sql) {
+        int open = sql.indexOf("(?");
+        if (open < 0) {
+            return sql.toString();
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        while (open >= 0) {
+            int j = open + 2;
+            while (j + 2 < sql.length() && sql.charAt(j) == ',' && sql.charAt(j + 1) == ' ' && sql.charAt(j + 2) == '?') {
+                j += 3;
+            }
+            while (j + 1 < sql.length() && sql.charAt(j) == ',' && sql.charAt(j + 1) == '?') {
+                j += 2;
+            }
+            if (j < sql.length() && sql.charAt(j) == ')') {
+                out.append(sql, i, open).append("(?+)");
+                i = j + 1;
+            } else {
+                out.append(sql, i, open + 2);
+                i = open + 2;
+            }
+            open = sql.indexOf("(?", i);
+        }
+        out.append(sql, i, sql.length());
+        return out.toString();
+    }
+
+    private static boolean isNumberStart(String sql, int i, StringBuilder out) {
+        char c = sql.charAt(i);
+        if (!Character.isDigit(c)) {
+            return false;
+        }
+        // Un dígito pegado a un identificador (p. ej. alias "p1_0") no es un literal
+        if (out.length() == 0) {
+            return true;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return !(Character.isLetterOrDigit(previous) || previous == '_');
+    }
+
+    private static int skipNumber(String sql, int i) {
+        while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipStringLiteral(String sql, int i) {
+        i++;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                // '' es una comilla escapada dentro del literal
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipLineComment(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        return end < 0 ? sql.length() : end + 1;
+    }
+
+    private static int skipBlockComment(String sql, int i) {
+        int end = sql.indexOf("*/", i + 2);
+        return end < 0 ? sql.length() : end + 2;
+    }
+
+    private static void appendLowerCase(StringBuilder out, String sql, int start, int end) {
+        for (int k = start; k < end; k++) {
+            out.append(Character.toLowerCase(sql.charAt(k)));
+        }
+    }
+}
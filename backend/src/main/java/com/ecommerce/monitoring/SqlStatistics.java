@@ -0,0 +1,146 @@
+package com.ecommerce.monitoring;
+
+import com.ecommerce.dto.SqlFingerprintStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SqlStatistics {
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("com.ecommerce.sql.slow");
+
+    // Acota la memoria si aparecen consultas con SQL dinámico que no se normaliza bien
+    private static final int MAX_FINGERPRINTS = 2_000;
+    private static final int MAX_CACHED_STATEMENTS = 10_000;
+    private static final String OVERFLOW_FINGERPRINT = "<otras consultas>";
+
+    @Value("${monitoring.sql.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    // Fracción de las sentencias rápidas que igual se loguean (0 = ninguna)
+    @Value("${monitoring.sql.log-sample-rate:0}")
+    private double logSampleRate;
+
+    private final Map<String, FingerprintStats> statsByFingerprint = new ConcurrentHashMap<>();
+
+    // Hibernate reutiliza los mismos strings de SQL: se normalizan una sola vez
+    private final Map<String, String> fingerprintBySql = new ConcurrentHashMap<>();
+
+    void record(String sql, long nanos, long rows, boolean failed) {
+        if (sql == null) {
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        FingerprintStats stats = statsByFingerprint.get(fingerprint);
+        if (stats == null) {
+            if (statsByFingerprint.size() >= MAX_FINGERPRINTS) {
+                fingerprint = OVERFLOW_FINGERPRINT;
+            }
+            stats = statsByFingerprint.computeIfAbsent(fingerprint, key -> new FingerprintStats());
+        }
+        stats.record(nanos, rows, failed);
+
+        long millis = nanos / 1_000_000;
+        if (millis >= slowThresholdMs) {
+            slowQueryLogger.warn("sql_slow duration_ms={} rows={} failed={} fingerprint_id={} fingerprint=\"{}\"",
+                    millis, rows, failed, fingerprintId(fingerprint), fingerprint);
+        } else if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            slowQueryLogger.info("sql_sample duration_ms={} rows={} failed={} fingerprint_id={} fingerprint=\"{}\"",
+                    millis, rows, failed, fingerprintId(fingerprint), fingerprint);
+        }
+    }
+
+    public List<SqlFingerprintStatsDTO> getTopByTotalTime(int limit) {
+        // Se ordena sobre una foto de los totales: los contadores siguen cambiando mientras tanto
+        List<RankedFingerprint> ranked = new ArrayList<>(statsByFingerprint.size());
+        statsByFingerprint.forEach((fingerprint, stats) ->
+                ranked.add(new RankedFingerprint(fingerprint, stats, stats.totalNanos.sum())));
+        ranked.sort(Comparator.comparingLong((RankedFingerprint entry) -> entry.totalNanos).reversed());
+
+        List<SqlFingerprintStatsDTO> top = new ArrayList<>();
+        for (RankedFingerprint entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            top.add(toDTO(entry.fingerprint, entry.stats));
+        }
+        return top;
+    }
+
+    public void clear() {
+        statsByFingerprint.clear();
+    }
+
+    private String fingerprint(String sql) {
+        String fingerprint = fingerprintBySql.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            if (fingerprintBySql.size() < MAX_CACHED_STATEMENTS) {
+                fingerprintBySql.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    // Identificador corto y estable para buscar la misma consulta en los logs
+    private static String fingerprintId(String fingerprint) {
+        return Integer.toHexString(fingerprint.hashCode());
+    }
+
+    private SqlFingerprintStatsDTO toDTO(String fingerprint, FingerprintStats stats) {
+        return new SqlFingerprintStatsDTO(
+                fingerprint,
+                stats.calls.sum(),
+                stats.errors.sum(),
+                stats.totalNanos.sum() / 1_000_000.0,
+                stats.maxNanos.get() / 1_000_000.0,
+                stats.latency.percentileMillis(0.50),
+                stats.latency.percentileMillis(0.95),
+                stats.latency.percentileMillis(0.99),
+                stats.rows.sum(),
+                stats.latency.snapshot()
+        );
+    }
+
+    private static class RankedFingerprint {
+        private final String fingerprint;
+        private final FingerprintStats stats;
+        private final long totalNanos;
+
+        RankedFingerprint(String fingerprint, FingerprintStats stats, long totalNanos) {
+            this.fingerprint = fingerprint;
+            this.stats = stats;
+            this.totalNanos = totalNanos;
+        }
+    }
+
+    private static class FingerprintStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(long nanos, long rowCount, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            maxNanos.accumulate(nanos);
+            latency.record(nanos);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.monitoring;
+
+import com.ecommerce.dto.PinningSiteDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Escucha en proceso el evento jdk.VirtualThreadPinned: un hilo virtual que se bloqueó sin poder soltar su carrier,
+// típicamente dentro de un bloque synchronized. Agrupa por el primer frame de la aplicación para señalar qué
+// synchronized conviene reemplazar por un ReentrantLock.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.ecommerce.";
+    private static final int STACK_DEPTH = 12;
+
+    @Value("${monitoring.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    private final Map<String, PinningSite> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    public List<PinningSiteDTO> getSites() {
+        List<PinningSiteDTO> result = new ArrayList<>();
+        sites.forEach((site, stats) -> result.add(new PinningSiteDTO(
+                site,
+                stats.count.sum(),
+                stats.totalNanos.sum() / 1_000_000.0,
+                stats.maxNanos.get() / 1_000_000.0,
+                stats.stack
+        )));
+        result.sort(Comparator.comparingDouble(PinningSiteDTO::getTotalTimeMs).reversed());
+        return result;
+    }
+
+    public void clear() {
+        sites.clear();
+    }
+
+    // Los eventos llegan de a uno por el hilo del stream; cada sitio nuevo se loguea una vez con su stack
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = site(frames);
+        PinningSite stats = sites.get(site);
+        if (stats == null) {
+            stats = new PinningSite(stack(frames));
+            sites.put(site, stats);
+            logger.warn("virtual_thread_pinned duration_ms={} site={} stack={}",
+                    event.getDuration().toMillis(), site, stats.stack);
+        }
+        stats.record(event.getDuration().toNanos());
+    }
+
+    // El primer frame propio; si el bloqueo ocurre enteramente en una librería, el frame superior
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return format(frame);
+            }
+        }
+        return frames.isEmpty() ? "<sin stack>" : format(frames.get(0));
+    }
+
+    private static List<String> stack(List<RecordedFrame> frames) {
+        List<String> stack = new ArrayList<>();
+        for (RecordedFrame frame : frames.subList(0, Math.min(STACK_DEPTH, frames.size()))) {
+            stack.add(format(frame));
+        }
+        return stack;
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static class PinningSite {
+        private final List<String> stack;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        PinningSite(List<String> stack) {
+            this.stack = stack;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+    }
+}
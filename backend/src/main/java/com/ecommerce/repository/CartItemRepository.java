@@ -1,11 +1,27 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.CartItem;
-import com.ecommerce.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByUser(User user);
-    void deleteByUser(User user);
+    // El carrito siempre se muestra con sus productos: un JOIN en lugar de una consulta por línea.
+    // c.user.id se resuelve a cart_items.user_id; la consulta derivada agregaba un LEFT JOIN a users y filtraba
+    // sobre él, y el índice de (user_id, product_id) no se usaba
+    @EntityGraph(attributePaths = "product")
+    @Query("select c from CartItem c where c.user.id = :userId")
+    List<CartItem> findByUserId(@Param("userId") Long userId);
+
+    @Query("select c from CartItem c where c.user.id = :userId and c.product.id = :productId")
+    Optional<CartItem> findByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    // Un único DELETE; la versión derivada cargaba el carrito y borraba línea por línea
+    @Modifying
+    @Query("delete from CartItem c where c.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
 }
@@ -2,6 +2,8 @@ package com.ecommerce.repository;
 
 import com.ecommerce.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    List<Product> findByCategoryOrderById(String category);
 }
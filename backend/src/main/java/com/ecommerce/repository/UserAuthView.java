@@ -0,0 +1,9 @@
+package com.ecommerce.repository;
+
+// Proyección mínima del usuario usada para autenticar cada request
+public interface UserAuthView {
+    Long getId();
+    String getEmail();
+    String getRole();
+    Boolean getIsActive();
+}
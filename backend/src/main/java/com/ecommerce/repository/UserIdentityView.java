@@ -0,0 +1,7 @@
+package com.ecommerce.repository;
+
+// Proyección con los campos únicos del usuario
+public interface UserIdentityView {
+    String getUsername();
+    String getEmail();
+}
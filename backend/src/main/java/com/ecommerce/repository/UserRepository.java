@@ -2,11 +2,36 @@ package com.ecommerce.repository;
 
 import com.ecommerce.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+    Optional<UserAuthView> findAuthViewByEmail(String email);
+
+    // Un UNION en lugar del OR: cada rama usa su índice único (username, email) en vez de recorrer la tabla
+    @Query("select u.username as username, u.email as email from User u where u.username = :username " +
+            "union select u.username as username, u.email as email from User u where u.email = :email")
+    List<UserIdentityView> findIdentitiesByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+
+    @Query("select u.username as username, u.email as email from User u")
+    List<UserIdentityView> findAllIdentities();
+
+    @Query("select u.profilePhoto from User u where u.profilePhoto in :photos")
+    List<String> findReferencedProfilePhotos(@Param("photos") Collection<String> photos);
+
+    // Solo registra los derivados si el usuario no cambió de foto mientras se generaban
+    @Transactional
+    @Modifying
+    @Query("update User u set u.profilePhotoSizes = :sizes where u.id = :userId and u.profilePhoto = :photo")
+    int updateProfilePhotoSizes(@Param("userId") Long userId, @Param("photo") String photo, @Param("sizes") String sizes);
+
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 }
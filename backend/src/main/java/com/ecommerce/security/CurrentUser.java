@@ -0,0 +1,28 @@
+package com.ecommerce.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+// Usuario autenticado de la request actual, cargado una sola vez por JwtAuthenticationFilter
+@Component
+@RequestScope
+public class CurrentUser {
+    private Long id;
+    private String email;
+    private String role;
+    private boolean active;
+
+    void populate(Long id, String email, String role, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+    }
+
+    public boolean isAuthenticated() { return id != null; }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public boolean isActive() { return active; }
+}
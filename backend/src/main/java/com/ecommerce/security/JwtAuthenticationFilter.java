@@ -1,19 +1,23 @@
 package com.ecommerce.security;
 
+import com.ecommerce.monitoring.RequestTimings;
+import com.ecommerce.repository.UserAuthView;
+import com.ecommerce.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -22,7 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
+
+    @Autowired
+    private CurrentUser currentUser;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,23 +38,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String email = null;
-        String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
+            long start = System.nanoTime();
             try {
-                email = jwtUtil.extractEmail(jwt);
+                // Una sola verificación: firma y expiración se validan al parsear
+                Claims claims = jwtUtil.parseClaims(jwt);
+                email = claims.getSubject();
             } catch (Exception e) {
                 // Token inválido, continuar sin autenticación
             }
+            RequestTimings.record(RequestTimings.Phase.JWT, start);
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+            long start = System.nanoTime();
+            UserAuthView user = userRepository.findAuthViewByEmail(email).orElse(null);
+            RequestTimings.record(RequestTimings.Phase.USER_LOOKUP, start);
+
+            if (user != null && Boolean.TRUE.equals(user.getIsActive())) {
+                currentUser.populate(user.getId(), user.getEmail(), user.getRole(), true);
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        user.getEmail(), null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -42,6 +42,15 @@ public class JwtUtil {
                 .getSubject();
     }
 
+    public Claims parseClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
     public boolean validateToken(String token, String email) {
         try {
             String extractedEmail = extractEmail(token);
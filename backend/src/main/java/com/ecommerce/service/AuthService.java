@@ -7,9 +7,13 @@ import com.ecommerce.dto.UserDTO;
 import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.UnauthorizedException;
 import com.ecommerce.model.User;
+import com.ecommerce.monitoring.LoginEvent;
+import com.ecommerce.monitoring.ShopMetrics;
+import com.ecommerce.repository.UserIdentityView;
 import com.ecommerce.repository.UserRepository;
 import com.ecommerce.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -28,49 +32,80 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
-    public AuthResponseDTO register(RegisterDTO registerDTO) {
-        if (userRepository.existsByEmail(registerDTO.getEmail())) {
-            throw new BadRequestException("El email ya está registrado");
-        }
-        
-        if (userRepository.existsByUsername(registerDTO.getUsername())) {
-            throw new BadRequestException("El nombre de usuario ya está registrado");
-        }
+    @Autowired
+    private AvailabilityService availabilityService;
 
+    @Autowired
+    private ShopMetrics shopMetrics;
+
+    public AuthResponseDTO register(RegisterDTO registerDTO) {
         User user = convertToEntity(registerDTO);
         user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
         user.setRole("user");
         user.setCreatedAt(LocalDateTime.now());
         user.setIsActive(true);
 
-        User savedUser = userRepository.save(user);
+        // Las restricciones únicas de la tabla deciden: un solo INSERT, sin consultas previas
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            shopMetrics.registrationFailed("duplicate");
+            throw duplicateUserException(registerDTO.getUsername(), registerDTO.getEmail());
+        }
+        availabilityService.recordUser(savedUser.getUsername(), savedUser.getEmail());
+        shopMetrics.registrationCompleted();
         String token = jwtUtil.generateToken(savedUser.getEmail(), Set.of(savedUser.getRole()));
 
         return convertToAuthResponse(savedUser, token);
     }
 
     public AuthResponseDTO login(LoginDTO loginDTO) {
-        User user = userRepository.findByEmail(loginDTO.getEmail())
-                .orElseThrow(() -> new UnauthorizedException("Credenciales inválidas"));
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        User user = userRepository.findByEmail(loginDTO.getEmail()).orElse(null);
+        if (user == null) {
+            shopMetrics.loginFailed("unknown_user");
+            event.finish(0, "unknown_user");
+            throw new UnauthorizedException("Credenciales inválidas");
+        }
 
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        long hashStart = System.nanoTime();
+        boolean passwordMatches = passwordEncoder.matches(loginDTO.getPassword(), user.getPassword());
+        long hashNanos = System.nanoTime() - hashStart;
+        if (!passwordMatches) {
+            shopMetrics.loginFailed("bad_password");
+            event.finish(hashNanos, "bad_password");
             throw new UnauthorizedException("Credenciales inválidas");
         }
 
         if (!user.getIsActive()) {
+            shopMetrics.loginFailed("inactive");
+            event.finish(hashNanos, "inactive");
             throw new UnauthorizedException("Usuario inactivo");
         }
 
+        shopMetrics.loginSucceeded();
+        event.finish(hashNanos, "success");
         String token = jwtUtil.generateToken(user.getEmail(), Set.of(user.getRole()));
         return convertToAuthResponse(user, token);
     }
 
-    public UserDTO getUserProfile(String email) {
-        User user = userRepository.findByEmail(email)
+    public UserDTO getUserProfile(Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnauthorizedException("Usuario no encontrado"));
         return convertToUserDTO(user);
     }
 
+    private BadRequestException duplicateUserException(String username, String email) {
+        for (UserIdentityView identity : userRepository.findIdentitiesByUsernameOrEmail(username, email)) {
+            if (email.equals(identity.getEmail())) {
+                return new BadRequestException("El email ya está registrado");
+            }
+        }
+        return new BadRequestException("El nombre de usuario ya está registrado");
+    }
+
     private User convertToEntity(RegisterDTO registerDTO) {
         User user = new User();
         user.setUsername(registerDTO.getUsername());
@@ -0,0 +1,90 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.AvailabilityDTO;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.repository.UserIdentityView;
+import com.ecommerce.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class AvailabilityService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_CAPACITY = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+
+    // Se construye una vez que el DataLoader terminó de sembrar usuarios
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<UserIdentityView> identities = userRepository.findAllIdentities();
+        // Margen para absorber los registros posteriores sin degradar la tasa de falsos positivos
+        long capacity = Math.max(MIN_CAPACITY, identities.size() * 2L);
+        BloomFilter newUsernames = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        BloomFilter newEmails = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        for (UserIdentityView identity : identities) {
+            newUsernames.put(identity.getUsername());
+            newEmails.put(identity.getEmail());
+        }
+        this.usernames = newUsernames;
+        this.emails = newEmails;
+    }
+
+    public AvailabilityDTO checkAvailability(String username, String email) {
+        if (isBlank(username) && isBlank(email)) {
+            throw new BadRequestException("Debe indicar un nombre de usuario o un email");
+        }
+
+        boolean usernameMaybeTaken = !isBlank(username) && mightContain(usernames, username);
+        boolean emailMaybeTaken = !isBlank(email) && mightContain(emails, email);
+
+        boolean usernameTaken = false;
+        boolean emailTaken = false;
+        if (usernameMaybeTaken || emailMaybeTaken) {
+            // Una única consulta sobre los índices únicos confirma ambos positivos
+            for (UserIdentityView identity : userRepository.findIdentitiesByUsernameOrEmail(
+                    usernameMaybeTaken ? username : null, emailMaybeTaken ? email : null)) {
+                usernameTaken |= usernameMaybeTaken && username.equals(identity.getUsername());
+                emailTaken |= emailMaybeTaken && email.equals(identity.getEmail());
+            }
+        }
+
+        return new AvailabilityDTO(
+                isBlank(username) ? null : !usernameTaken,
+                isBlank(email) ? null : !emailTaken
+        );
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return checkAvailability(username, null).getUsernameAvailable();
+    }
+
+    public void recordUser(String username, String email) {
+        BloomFilter currentUsernames = usernames;
+        BloomFilter currentEmails = emails;
+        if (currentUsernames != null && username != null) {
+            currentUsernames.put(username);
+        }
+        if (currentEmails != null && email != null) {
+            currentEmails.put(email);
+        }
+    }
+
+    // Antes de construir el filtro toda consulta se resuelve contra la base
+    private boolean mightContain(BloomFilter filter, String value) {
+        return filter == null || filter.mightContain(value);
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatisticsService {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(toDTO(regionName, region));
+            }
+        }
+        CacheRegionStatistics queryRegion = statistics.getQueryRegionStatistics(QUERY_RESULTS_REGION);
+        if (queryRegion != null) {
+            regions.add(toDTO(QUERY_RESULTS_REGION, queryRegion));
+        }
+        return regions;
+    }
+
+    public void clearStatistics() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    private CacheRegionStatsDTO toDTO(String regionName, CacheRegionStatistics region) {
+        return new CacheRegionStatsDTO(
+                regionName,
+                region.getHitCount(),
+                region.getMissCount(),
+                region.getPutCount(),
+                region.getElementCountInMemory()
+        );
+    }
+}
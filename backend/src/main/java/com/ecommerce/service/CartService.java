@@ -1,19 +1,28 @@
 package com.ecommerce.service;
 
+import com.ecommerce.config.ReadWriteRoutingDataSource;
+import com.ecommerce.config.ReplicaLagGuard;
 import com.ecommerce.dto.*;
 import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.UnauthorizedException;
 import com.ecommerce.model.CartItem;
 import com.ecommerce.model.Product;
-import com.ecommerce.model.User;
+import com.ecommerce.monitoring.CartMutationEvent;
+import com.ecommerce.monitoring.RequestTimings;
+import com.ecommerce.monitoring.ShopMetrics;
 import com.ecommerce.repository.CartItemRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,17 +38,40 @@ public class CartService {
     @Autowired
     private ProductRepository productRepository;
 
-    public List<CartItemDTO> getCartByUserEmail(String email) {
-        User user = getUserByEmail(email);
-        List<CartItem> items = cartItemRepository.findByUser(user);
-        return items.stream()
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private ShopMetrics shopMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<CartItemDTO> getCart(Long userId) {
+        // Justo después de modificar el carrito la réplica podría no tener el cambio
+        if (replicaLagGuard.requiresPrimary(userId)) {
+            return ReadWriteRoutingDataSource.onPrimary(() -> loadCart(userId));
+        }
+        return loadCart(userId);
+    }
+
+    private List<CartItemDTO> loadCart(Long userId) {
+        List<CartItem> items = cartItemRepository.findByUserId(userId);
+        // Incluye la carga perezosa de cada producto: esas consultas también suman a la fase db
+        long start = System.nanoTime();
+        List<CartItemDTO> dtos = items.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        RequestTimings.record(RequestTimings.Phase.MAPPING, start);
+        return dtos;
     }
 
     @Transactional
-    public CartItemDTO addToCart(String email, AddToCartDTO addToCartDTO) {
-        User user = getUserByEmail(email);
+    public CartItemDTO addToCart(Long userId, AddToCartDTO addToCartDTO) {
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        replicaLagGuard.recordWrite(userId);
         Product product = productRepository.findById(addToCartDTO.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", addToCartDTO.getProductId()));
 
@@ -47,10 +79,7 @@ public class CartService {
             throw new BadRequestException("Stock insuficiente");
         }
 
-        List<CartItem> existingItems = cartItemRepository.findByUser(user);
-        CartItem existingItem = existingItems.stream()
-                .filter(item -> item.getProduct().getId().equals(addToCartDTO.getProductId()))
-                .findFirst()
+        CartItem existingItem = cartItemRepository.findByUserIdAndProductId(userId, addToCartDTO.getProductId())
                 .orElse(null);
 
         if (existingItem != null) {
@@ -60,23 +89,34 @@ public class CartService {
             }
             existingItem.setQuantity(totalQuantity);
             CartItem savedItem = cartItemRepository.save(existingItem);
+            event.finish("add", userId, product.getId(), addToCartDTO.getQuantity());
             return convertToDTO(savedItem);
         } else {
             CartItem newItem = new CartItem();
-            newItem.setUser(user);
+            newItem.setUser(userRepository.getReferenceById(userId));
             newItem.setProduct(product);
             newItem.setQuantity(addToCartDTO.getQuantity());
-            CartItem savedItem = cartItemRepository.save(newItem);
+            // Otro pedido concurrente pudo insertar la misma línea: la restricción única lo detecta
+            CartItem savedItem;
+            try {
+                savedItem = cartItemRepository.saveAndFlush(newItem);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConcurrencyFailureException("El producto se agregó al carrito desde otro pedido", e);
+            }
+            event.finish("add", userId, product.getId(), addToCartDTO.getQuantity());
             return convertToDTO(savedItem);
         }
     }
 
     @Transactional
-    public CartItemDTO updateCartItem(String email, Long itemId, UpdateCartItemDTO updateCartItemDTO) {
+    public CartItemDTO updateCartItem(Long userId, Long itemId, UpdateCartItemDTO updateCartItemDTO) {
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        replicaLagGuard.recordWrite(userId);
         CartItem item = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Item del carrito", "id", itemId));
 
-        if (!item.getUser().getEmail().equals(email)) {
+        if (!item.getUser().getId().equals(userId)) {
             throw new UnauthorizedException("No autorizado para modificar este item");
         }
 
@@ -86,62 +126,83 @@ public class CartService {
 
         item.setQuantity(updateCartItemDTO.getQuantity());
         CartItem savedItem = cartItemRepository.save(item);
+        event.finish("update", userId, item.getProduct().getId(), updateCartItemDTO.getQuantity());
         return convertToDTO(savedItem);
     }
 
     @Transactional
-    public void removeFromCart(String email, Long itemId) {
+    public void removeFromCart(Long userId, Long itemId) {
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        replicaLagGuard.recordWrite(userId);
         CartItem item = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Item del carrito", "id", itemId));
 
-        if (!item.getUser().getEmail().equals(email)) {
+        if (!item.getUser().getId().equals(userId)) {
             throw new UnauthorizedException("No autorizado para eliminar este item");
         }
 
         cartItemRepository.delete(item);
+        event.finish("remove", userId, item.getProduct().getId(), item.getQuantity());
     }
 
     @Transactional
-    public void clearCart(String email) {
-        User user = getUserByEmail(email);
-        cartItemRepository.deleteByUser(user);
+    public void clearCart(Long userId) {
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        replicaLagGuard.recordWrite(userId);
+        cartItemRepository.deleteByUserId(userId);
+        event.finish("clear", userId, 0, 0);
     }
 
     @Transactional
-    public CheckoutResponseDTO checkout(String email) {
-        User user = getUserByEmail(email);
-        List<CartItem> items = cartItemRepository.findByUser(user);
+    public CheckoutResponseDTO checkout(Long userId) {
+        CheckoutOutcome outcome = new CheckoutOutcome(shopMetrics, userId);
+        TransactionSynchronizationManager.registerSynchronization(outcome);
+        replicaLagGuard.recordWrite(userId);
+        List<CartItem> items = cartItemRepository.findByUserId(userId);
 
         if (items.isEmpty()) {
+            outcome.failed("empty_cart", 0);
             throw new BadRequestException("El carrito está vacío");
         }
 
         for (CartItem item : items) {
             if (item.getProduct().getStock() < item.getQuantity()) {
+                outcome.failed("insufficient_stock", items.size());
                 throw new BadRequestException("Stock insuficiente para " + item.getProduct().getName());
             }
         }
 
-        double total = 0;
+        int units = 0;
+        List<ProductChangeDTO> changes = new ArrayList<>(items.size());
         for (CartItem item : items) {
             Product product = item.getProduct();
             product.setStock(product.getStock() - item.getQuantity());
             productRepository.save(product);
-            total += product.getPrice() * item.getQuantity();
+            units += item.getQuantity();
+            changes.add(new ProductChangeDTO(product.getId(), product.getPrice(), product.getStock()));
         }
+        double total = calculateTotal(items);
+        eventPublisher.publishEvent(new CatalogChangedEvent("checkout", changes));
 
         int itemsCount = items.size();
-        cartItemRepository.deleteByUser(user);
+        cartItemRepository.deleteByUserId(userId);
+        outcome.succeeded(itemsCount, units, total);
 
         return new CheckoutResponseDTO("Compra realizada exitosamente", total, itemsCount);
     }
 
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", email));
+    // Visibles en el paquete para los benchmarks de JMH (src/jmh)
+    static double calculateTotal(List<CartItem> items) {
+        double total = 0;
+        for (CartItem item : items) {
+            total += item.getProduct().getPrice() * item.getQuantity();
+        }
+        return total;
     }
 
-    private CartItemDTO convertToDTO(CartItem cartItem) {
+    CartItemDTO convertToDTO(CartItem cartItem) {
         ProductDTO productDTO = new ProductDTO(
                 cartItem.getProduct().getId(),
                 cartItem.getProduct().getName(),
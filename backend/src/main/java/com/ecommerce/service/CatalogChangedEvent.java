@@ -0,0 +1,25 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductChangeDTO;
+
+import java.util.List;
+
+// Se publica al crear, modificar o borrar productos y al descontar stock en el checkout.
+// changes trae precio y stock de los productos modificados para quienes los siguen en vivo.
+public class CatalogChangedEvent {
+
+    private final String reason;
+    private final List<ProductChangeDTO> changes;
+
+    public CatalogChangedEvent(String reason) {
+        this(reason, List.of());
+    }
+
+    public CatalogChangedEvent(String reason, List<ProductChangeDTO> changes) {
+        this.reason = reason;
+        this.changes = changes;
+    }
+
+    public String getReason() { return reason; }
+    public List<ProductChangeDTO> getChanges() { return changes; }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.service;
+
+import java.util.Map;
+
+// El catálogo ya serializado: la lista completa y una porción por categoría, cada una en JSON plano y en gzip.
+// Es inmutable; CatalogSnapshotService lo reemplaza entero cuando cambia un producto.
+public final class CatalogSnapshot {
+
+    private static final Payload EMPTY = new Payload(new byte[]{'[', ']'}, null);
+
+    private final long version;
+    private final int productCount;
+    private final Payload all;
+    private final Map<String, Payload> categories;
+
+    CatalogSnapshot(long version, int productCount, Payload all, Map<String, Payload> categories) {
+        this.version = version;
+        this.productCount = productCount;
+        this.all = all;
+        this.categories = categories;
+    }
+
+    long getVersion() { return version; }
+    public int getProductCount() { return productCount; }
+
+    // false si el catálogo supera catalog.snapshot.max-products y se sirve por el camino normal
+    boolean isAvailable() {
+        return all != null;
+    }
+
+    public Payload getAll() {
+        return all;
+    }
+
+    // Una categoría sin productos responde la lista vacía, igual que la consulta
+    public Payload getCategory(String category) {
+        return categories.getOrDefault(category, EMPTY);
+    }
+
+    long getTotalBytes() {
+        if (all == null) {
+            return 0;
+        }
+        long total = all.size();
+        for (Payload payload : categories.values()) {
+            total += payload.size();
+        }
+        return total;
+    }
+
+    public static final class Payload {
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        Payload(byte[] identity, byte[] gzip) {
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public byte[] getIdentity() { return identity; }
+
+        // null si comprimir no achica el cuerpo
+        public byte[] getGzip() { return gzip; }
+
+        long size() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    // Una entrada explícita de gzip manda sobre el comodín; q=0 significa "no aceptado"
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                    accepted = false;
+                }
+            }
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                any = accepted;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.ReadWriteRoutingDataSource;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.monitoring.RequestTimings;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// El catálogo cambia unas pocas veces por hora y se lee miles de veces por minuto: se consulta, convierte,
+// serializa y comprime una vez por cambio y GET /api/products copia los bytes tal cual.
+// Cada escritura de productos avanza la versión al confirmarse (CatalogChangedEvent). Las lecturas nunca esperan
+// una reconstrucción: siguen recibiendo el snapshot anterior mientras una sola tarea en segundo plano arma el nuevo.
+// Los cambios que llegan dentro de un mismo refresh-interval-ms (típicamente el stock de varios checkouts
+// seguidos) se resuelven con una sola reconstrucción.
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    // Arriba de esta cantidad el catálogo se sirve por el camino normal en lugar de retenerlo en memoria
+    @Value("${catalog.snapshot.max-products:20000}")
+    private int maxProducts;
+
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    // Si la reconstrucción anterior fue hace menos que esto, los cambios son frecuentes: se comprime rápido
+    // en lugar de con el nivel máximo, que cuesta varias veces más CPU por unos pocos bytes
+    @Value("${catalog.snapshot.fast-gzip-window-ms:60000}")
+    private long fastGzipWindowMs;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile CatalogSnapshot snapshot;
+    private volatile long lastRebuildNanos;
+    private Counter rebuilds;
+
+    @PostConstruct
+    public void registerMetrics() {
+        rebuilds = Counter.builder("catalog.snapshot.rebuilds")
+                .description("Reconstrucciones del catálogo serializado")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.bytes", this, service -> {
+                    CatalogSnapshot current = service.snapshot;
+                    return current != null ? current.getTotalBytes() : 0;
+                })
+                .description("Memoria ocupada por el catálogo serializado, con sus variantes comprimidas")
+                .register(meterRegistry);
+    }
+
+    // null si está deshabilitado o el catálogo es demasiado grande: el llamador usa ProductService
+    public CatalogSnapshot current() {
+        if (!enabled) {
+            return null;
+        }
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            // Solo la primera lectura espera: todavía no hay nada que servir
+            current = rebuild();
+        }
+        return current.isAvailable() ? current : null;
+    }
+
+    // Una sola reconstrucción en curso; las escrituras confirmadas mientras tanto las toma la siguiente vuelta
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms:250}")
+    public void refresh() {
+        CatalogSnapshot current = snapshot;
+        if (!enabled || current == null || current.getVersion() == version.get()) {
+            return;
+        }
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        rebuild();
+                    } catch (RuntimeException e) {
+                        logger.warn("catalog_snapshot_rebuild_failed version={}", version.get(), e);
+                    } finally {
+                        rebuildScheduled.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                rebuildScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    // Las escrituras de productos publican el evento; dentro de una transacción llega recién al confirmarse,
+    // para que la reconstrucción no lea los datos anteriores y quede marcada como vigente
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        long current = version.incrementAndGet();
+        logger.debug("catalog_changed reason={} version={}", event.getReason(), current);
+    }
+
+    CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            CatalogSnapshot current = snapshot;
+            long target = version.get();
+            if (current != null && current.getVersion() == target) {
+                return current;
+            }
+            long now = System.nanoTime();
+            boolean frequent = current != null && now - lastRebuildNanos < fastGzipWindowMs * 1_000_000;
+            current = build(target, frequent ? Deflater.BEST_SPEED : Deflater.BEST_COMPRESSION);
+            snapshot = current;
+            lastRebuildNanos = now;
+            rebuilds.increment();
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // La versión se toma antes de leer: si una escritura se confirma durante la construcción, el resultado
+    // ya nace desactualizado y la próxima vuelta de refresh() lo reconstruye. Se lee del primario por la misma razón.
+    private CatalogSnapshot build(long target, int gzipLevel) {
+        List<ProductDTO> products = ReadWriteRoutingDataSource.onPrimary(productService::getAllProducts);
+        if (products.size() > maxProducts) {
+            logger.info("catalog_snapshot_skipped products={} max={}", products.size(), maxProducts);
+            return new CatalogSnapshot(target, products.size(), null, Map.of());
+        }
+
+        long start = System.nanoTime();
+        // Cada categoría en el mismo orden que la consulta por categoría (por id)
+        List<ProductDTO> byId = new ArrayList<>(products);
+        byId.sort(Comparator.comparing(ProductDTO::getId));
+        Map<String, List<ProductDTO>> grouped = new LinkedHashMap<>();
+        for (ProductDTO product : byId) {
+            grouped.computeIfAbsent(product.getCategory(), category -> new ArrayList<>()).add(product);
+        }
+
+        Map<String, CatalogSnapshot.Payload> categories = new HashMap<>();
+        grouped.forEach((category, slice) -> categories.put(category, payload(slice, gzipLevel)));
+        CatalogSnapshot built = new CatalogSnapshot(target, products.size(), payload(products, gzipLevel),
+                Map.copyOf(categories));
+        RequestTimings.record(RequestTimings.Phase.SERIALIZATION, start);
+
+        logger.info("catalog_snapshot_built version={} products={} categories={} bytes={} gzip_level={} duration_ms={}",
+                target, products.size(), categories.size(), built.getTotalBytes(), gzipLevel,
+                (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private CatalogSnapshot.Payload payload(List<ProductDTO> products, int gzipLevel) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(products);
+            byte[] gzip = gzip(identity, gzipLevel);
+            return new CatalogSnapshot.Payload(identity, gzip.length < identity.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data, int level) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
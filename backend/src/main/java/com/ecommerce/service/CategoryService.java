@@ -6,9 +6,11 @@ import com.ecommerce.dto.UpdateCategoryDTO;
 import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.model.Category;
+import com.ecommerce.monitoring.RequestTimings;
 import com.ecommerce.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,12 +21,18 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll().stream()
+        List<Category> categories = categoryRepository.findAll();
+        long start = System.nanoTime();
+        List<CategoryDTO> dtos = categories.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        RequestTimings.record(RequestTimings.Phase.MAPPING, start);
+        return dtos;
     }
 
+    @Transactional(readOnly = true)
     public CategoryDTO getCategoryById(String id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
@@ -0,0 +1,54 @@
+package com.ecommerce.service;
+
+import com.ecommerce.monitoring.CheckoutEvent;
+import com.ecommerce.monitoring.ShopMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+// Registra el resultado de un checkout (métrica y evento JFR) cuando termina su transacción. La verificación de
+// @Version de los productos corre recién en el commit: una compra que falla ahí no se cuenta como exitosa aunque
+// el método haya llegado al final.
+class CheckoutOutcome implements TransactionSynchronization {
+
+    private final ShopMetrics shopMetrics;
+    private final Timer.Sample sample;
+    private final CheckoutEvent event = new CheckoutEvent();
+    private final long userId;
+    private String failureReason;
+    private boolean succeeded;
+    private int lines;
+    private int units;
+    private double total;
+
+    CheckoutOutcome(ShopMetrics shopMetrics, long userId) {
+        this.shopMetrics = shopMetrics;
+        this.userId = userId;
+        this.sample = shopMetrics.startCheckout();
+        event.begin();
+    }
+
+    void failed(String reason, int lines) {
+        this.failureReason = reason;
+        this.lines = lines;
+    }
+
+    void succeeded(int lines, int units, double total) {
+        this.succeeded = true;
+        this.lines = lines;
+        this.units = units;
+        this.total = total;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED && succeeded) {
+            shopMetrics.checkoutCompleted(sample, lines, units, total);
+            event.finish(userId, lines, total, "success");
+        } else {
+            // Sin motivo propio: la transacción se revirtió en el commit (conflicto de versión) o por una excepción
+            String reason = failureReason != null ? failureReason : "rollback";
+            shopMetrics.checkoutFailed(sample, reason);
+            event.finish(userId, lines, 0, reason);
+        }
+    }
+}
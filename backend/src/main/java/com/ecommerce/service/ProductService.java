@@ -1,13 +1,17 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.CreateProductDTO;
+import com.ecommerce.dto.ProductChangeDTO;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.dto.UpdateProductDTO;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.model.Product;
+import com.ecommerce.monitoring.RequestTimings;
 import com.ecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,12 +22,20 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(productRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByCategory(String category) {
+        return convertToDTOs(productRepository.findByCategoryOrderById(category));
     }
 
+    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", id));
@@ -33,6 +45,7 @@ public class ProductService {
     public ProductDTO createProduct(CreateProductDTO createProductDTO) {
         Product product = convertToEntity(createProductDTO);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent("create"));
         return convertToDTO(savedProduct);
     }
 
@@ -42,6 +55,8 @@ public class ProductService {
 
         updateProductFields(existingProduct, updateProductDTO);
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new CatalogChangedEvent("update", List.of(new ProductChangeDTO(
+                updatedProduct.getId(), updatedProduct.getPrice(), updatedProduct.getStock()))));
         return convertToDTO(updatedProduct);
     }
 
@@ -50,9 +65,20 @@ public class ProductService {
             throw new ResourceNotFoundException("Producto", "id", id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent("delete"));
+    }
+
+    private List<ProductDTO> convertToDTOs(List<Product> products) {
+        long start = System.nanoTime();
+        List<ProductDTO> dtos = products.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        RequestTimings.record(RequestTimings.Phase.MAPPING, start);
+        return dtos;
     }
 
-    private ProductDTO convertToDTO(Product product) {
+    // Visible en el paquete para los benchmarks de JMH (src/jmh)
+    ProductDTO convertToDTO(Product product) {
         return new ProductDTO(
                 product.getId(),
                 product.getName(),
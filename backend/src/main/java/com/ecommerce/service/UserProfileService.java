@@ -3,20 +3,21 @@ package com.ecommerce.service;
 import com.ecommerce.dto.*;
 import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
-import com.ecommerce.exception.UnauthorizedException;
 import com.ecommerce.model.User;
 import com.ecommerce.repository.UserRepository;
-import com.ecommerce.security.JwtUtil;
+import com.ecommerce.storage.BlobStore;
+import com.ecommerce.storage.ImageDerivativeService;
+import com.ecommerce.storage.ImageType;
+import com.ecommerce.storage.StoredBlob;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.io.InputStream;
 
 @Service
 public class UserProfileService {
@@ -28,19 +29,21 @@ public class UserProfileService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AvailabilityService availabilityService;
 
-    private final String UPLOAD_DIR = "uploads/profiles/";
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private BlobStore blobStore;
 
-    public UserDTO getProfile(String token) {
-        String email = extractEmailFromToken(token);
-        User user = getUserByEmail(email);
+    public UserDTO getProfile(Long userId) {
+        User user = getUserById(userId);
         return convertToUserDTO(user);
     }
 
-    public UserDTO updateProfile(String token, UpdateProfileDTO updateProfileDTO) {
-        String email = extractEmailFromToken(token);
-        User user = getUserByEmail(email);
+    public UserDTO updateProfile(Long userId, UpdateProfileDTO updateProfileDTO) {
+        User user = getUserById(userId);
 
         if (updateProfileDTO.getFirstName() != null) {
             user.setFirstName(updateProfileDTO.getFirstName());
@@ -48,43 +51,56 @@ public class UserProfileService {
         if (updateProfileDTO.getLastName() != null) {
             user.setLastName(updateProfileDTO.getLastName());
         }
-        if (updateProfileDTO.getUsername() != null) {
-            if (userRepository.existsByUsername(updateProfileDTO.getUsername()) && 
-                !user.getUsername().equals(updateProfileDTO.getUsername())) {
+        boolean usernameChanged = updateProfileDTO.getUsername() != null
+                && !user.getUsername().equals(updateProfileDTO.getUsername());
+        if (usernameChanged) {
+            if (!availabilityService.isUsernameAvailable(updateProfileDTO.getUsername())) {
                 throw new BadRequestException("El nombre de usuario ya está en uso");
             }
             user.setUsername(updateProfileDTO.getUsername());
         }
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Otro usuario tomó el nombre entre la verificación y el UPDATE
+            throw new BadRequestException("El nombre de usuario ya está en uso");
+        }
+        if (usernameChanged) {
+            availabilityService.recordUser(savedUser.getUsername(), null);
+        }
         return convertToUserDTO(savedUser);
     }
 
-    public PhotoUploadResponseDTO uploadPhoto(String token, MultipartFile file) {
-        String email = extractEmailFromToken(token);
-        User user = getUserByEmail(email);
+    public PhotoUploadResponseDTO uploadPhoto(Long userId, MultipartFile file) {
+        User user = getUserById(userId);
 
         if (file.isEmpty()) {
             throw new BadRequestException("No se seleccionó ningún archivo");
         }
 
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new BadRequestException("Solo se permiten archivos de imagen");
-        }
-
-        try {
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            // El tipo se determina por los bytes mágicos; el Content-Type del cliente no es confiable
+            in.mark(ImageType.HEADER_LENGTH);
+            byte[] header = in.readNBytes(ImageType.HEADER_LENGTH);
+            in.reset();
+            ImageType imageType = ImageType.detect(header, header.length);
+            if (imageType == null) {
+                throw new BadRequestException("Solo se permiten archivos de imagen");
             }
 
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path filePath = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath);
+            // La extensión permite resolver el Content-Type al servir sin leer el archivo.
+            // Una foto idéntica a otra ya subida reutiliza el mismo blob.
+            StoredBlob blob = blobStore.put(in, imageType.getExtension());
+            String photoUrl = BlobStore.PUBLIC_URL_PREFIX + blob.getKey();
 
-            user.setProfilePhoto("/uploads/profiles/" + fileName);
-            userRepository.save(user);
+            if (!photoUrl.equals(user.getProfilePhoto())) {
+                user.setProfilePhoto(photoUrl);
+                user.setProfilePhotoSizes(null);
+                userRepository.save(user);
+                imageDerivativeService.scheduleDerivatives(user.getId(), photoUrl, blobStore.localPath(blob.getKey()));
+            }
 
             return new PhotoUploadResponseDTO(
                 "Foto de perfil actualizada correctamente",
@@ -95,9 +111,8 @@ public class UserProfileService {
         }
     }
 
-    public void changePassword(String token, ChangePasswordDTO changePasswordDTO) {
-        String email = extractEmailFromToken(token);
-        User user = getUserByEmail(email);
+    public void changePassword(Long userId, ChangePasswordDTO changePasswordDTO) {
+        User user = getUserById(userId);
 
         if (!passwordEncoder.matches(changePasswordDTO.getCurrentPassword(), user.getPassword())) {
             throw new BadRequestException("Contraseña actual incorrecta");
@@ -107,17 +122,9 @@ public class UserProfileService {
         userRepository.save(user);
     }
 
-    private String extractEmailFromToken(String token) {
-        try {
-            return jwtUtil.extractEmail(token.replace("Bearer ", ""));
-        } catch (Exception e) {
-            throw new UnauthorizedException("Token inválido");
-        }
-    }
-
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", email));
+    private User getUserById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", userId));
     }
 
     private UserDTO convertToUserDTO(User user) {
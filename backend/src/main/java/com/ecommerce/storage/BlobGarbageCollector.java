@@ -0,0 +1,82 @@
+package com.ecommerce.storage;
+
+import com.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Elimina los blobs que ya no referencia ningún User.profilePhoto
+@Component
+public class BlobGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobGarbageCollector.class);
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FileMetadataCache fileMetadataCache;
+
+    @Value("${storage.gc.batch-size:500}")
+    private int batchSize;
+
+    // Un blob recién subido aún no tiene referencia guardada: se respeta un período de gracia
+    @Value("${storage.gc.grace-period-ms:3600000}")
+    private long gracePeriodMillis;
+
+    @Scheduled(initialDelayString = "${storage.gc.initial-delay-ms:600000}",
+               fixedDelayString = "${storage.gc.interval-ms:3600000}")
+    public void collect() {
+        long cutoff = System.currentTimeMillis() - gracePeriodMillis;
+        int[] deleted = {0};
+        try {
+            blobStore.forEachBatch(batchSize, keys -> deleted[0] += collectBatch(keys, cutoff));
+            blobStore.purgeIncompleteUploads(cutoff);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falló la recolección de blobs huérfanos", e);
+        }
+        if (deleted[0] > 0) {
+            logger.info("Blobs huérfanos eliminados: {}", deleted[0]);
+        }
+    }
+
+    private int collectBatch(List<String> keys, long cutoff) throws IOException {
+        List<String> urls = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            urls.add(BlobStore.PUBLIC_URL_PREFIX + key);
+        }
+        // Una consulta por lote resuelve el conteo de referencias de todos sus blobs
+        Set<String> referenced = new HashSet<>(userRepository.findReferencedProfilePhotos(urls));
+
+        int deleted = 0;
+        for (String key : keys) {
+            // La subida guarda la referencia después de put(): si llega tras esta consulta, put() ya renovó la
+            // marca de tiempo y deleteIfUntouchedSince conserva el blob
+            if (referenced.contains(BlobStore.PUBLIC_URL_PREFIX + key)
+                    || !blobStore.deleteIfUntouchedSince(key, cutoff)) {
+                continue;
+            }
+            Path path = blobStore.localPath(key);
+            fileMetadataCache.evict(path);
+            for (int size : ImageDerivativeService.SIZES) {
+                fileMetadataCache.evict(path.resolveSibling(
+                        ImageDerivativeService.variantFileName(path.getFileName().toString(), size)));
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+}
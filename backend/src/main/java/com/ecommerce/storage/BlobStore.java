@@ -0,0 +1,40 @@
+package com.ecommerce.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+// Almacenamiento de archivos direccionado por contenido. La clave es "ab/cd/<sha256><ext>",
+// así que dos subidas idénticas comparten el mismo blob.
+public interface BlobStore {
+
+    // Prefijo público con el que se sirven los blobs y se guardan en User.profilePhoto
+    String PUBLIC_URL_PREFIX = "/uploads/blobs/";
+
+    StoredBlob put(InputStream content, String extension) throws IOException;
+
+    boolean exists(String key);
+
+    // Ruta local del blob, usada para servir con sendfile y para generar derivados.
+    // Una implementación sobre almacenamiento de objetos la resolvería contra una caché local.
+    Path localPath(String key);
+
+    // Claves de blobs principales (sin derivados), en lotes para recorrer el almacenamiento sin cargarlo entero
+    void forEachBatch(int batchSize, BatchConsumer consumer) throws IOException;
+
+    // Borra el blob y sus derivados solo si no se escribió ni deduplicó desde olderThanMillis. La verificación y el
+    // borrado son atómicos respecto de put(): una subida idéntica o renueva la marca antes y el blob se conserva,
+    // o llega después del borrado y lo vuelve a escribir. false si el blob se conservó.
+    boolean deleteIfUntouchedSince(String key, long olderThanMillis) throws IOException;
+
+    // Borra el blob y sus derivados
+    void delete(String key) throws IOException;
+
+    // Borra temporales de subidas interrumpidas
+    void purgeIncompleteUploads(long olderThanMillis) throws IOException;
+
+    interface BatchConsumer {
+        void accept(List<String> keys) throws IOException;
+    }
+}
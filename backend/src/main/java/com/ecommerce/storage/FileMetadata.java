@@ -0,0 +1,25 @@
+package com.ecommerce.storage;
+
+import java.nio.file.Path;
+
+public class FileMetadata {
+    private final Path path;
+    private final long length;
+    private final long lastModified;
+    private final String etag;
+    private final String contentType;
+
+    public FileMetadata(Path path, long length, long lastModified, String etag, String contentType) {
+        this.path = path;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.etag = etag;
+        this.contentType = contentType;
+    }
+
+    public Path getPath() { return path; }
+    public long getLength() { return length; }
+    public long getLastModified() { return lastModified; }
+    public String getEtag() { return etag; }
+    public String getContentType() { return contentType; }
+}
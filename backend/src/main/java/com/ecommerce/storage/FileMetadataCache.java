@@ -0,0 +1,128 @@
+package com.ecommerce.storage;
+
+import com.ecommerce.monitoring.CacheAccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Metadatos de archivos subidos; como sus nombres son únicos e inmutables, una entrada nunca queda vieja
+@Component
+public class FileMetadataCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final String CACHE_NAME = "file-metadata";
+    // Blobs y sus derivados: <sha256>.png, <sha256>_48.jpg
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(_\\d+)?\\.[A-Za-z0-9]+");
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final Map<Path, FileMetadata> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, FileMetadata> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Devuelve null si el archivo no existe
+    public FileMetadata get(Path path) throws IOException {
+        FileMetadata cached;
+        synchronized (entries) {
+            cached = entries.get(path);
+        }
+        if (cached != null) {
+            hits.increment();
+            CacheAccessEvent.emit(CACHE_NAME, true);
+            return cached;
+        }
+
+        misses.increment();
+        CacheAccessEvent.emit(CACHE_NAME, false);
+        FileMetadata metadata = load(path);
+        if (metadata != null) {
+            synchronized (entries) {
+                entries.put(path, metadata);
+            }
+        }
+        return metadata;
+    }
+
+    public void evict(Path path) {
+        synchronized (entries) {
+            entries.remove(path);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private FileMetadata load(Path path) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        String fileName = path.getFileName().toString();
+        ImageType type = ImageType.fromFileName(fileName);
+        if (type == null) {
+            // Archivos anteriores guardados con el nombre original: se inspecciona el encabezado una vez
+            byte[] header = new byte[ImageType.HEADER_LENGTH];
+            int read;
+            try (InputStream in = Files.newInputStream(path)) {
+                read = in.readNBytes(header, 0, header.length);
+            }
+            type = ImageType.detect(header, read);
+        }
+
+        String etag = "\"" + contentTag(path, fileName) + "\"";
+        return new FileMetadata(
+                path,
+                attributes.size(),
+                attributes.lastModifiedTime().toMillis(),
+                etag,
+                type != null ? type.getContentType() : "application/octet-stream"
+        );
+    }
+
+    // ETag fuerte: el nombre de un blob ya es el hash de su contenido (y el del derivado, el del original más el
+    // tamaño). Las fotos anteriores al almacenamiento por contenido se hashean una vez, al entrar en la caché.
+    private static String contentTag(Path path, String fileName) throws IOException {
+        if (CONTENT_ADDRESSED.matcher(fileName).matches()) {
+            return fileName.substring(0, fileName.lastIndexOf('.'));
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.storage;
+
+import com.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.StringJoiner;
+
+// Genera versiones reducidas de cada foto subida para no servir originales de varios MB como avatar
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    public static final int[] SIZES = {48, 128, 512};
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("imageDerivativeExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    private FileMetadataCache fileMetadataCache;
+
+    public void scheduleDerivatives(Long userId, String photoUrl, Path original) {
+        try {
+            executor.execute(() -> generate(userId, photoUrl, original));
+        } catch (TaskRejectedException e) {
+            // Con la cola llena se sigue sirviendo el original
+            logger.warn("Cola de derivados llena, se omite {}", original.getFileName());
+        }
+    }
+
+    // Nombre del derivado: uuid.png -> uuid_48.jpg
+    public static String variantFileName(String fileName, int size) {
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return base + "_" + size + ".jpg";
+    }
+
+    // El menor derivado que cubre el tamaño pedido, o el mayor disponible
+    public static int selectSize(int requested) {
+        for (int size : SIZES) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return SIZES[SIZES.length - 1];
+    }
+
+    private void generate(Long userId, String photoUrl, Path original) {
+        try {
+            if (derivativesExist(original)) {
+                // Blob deduplicado: los derivados ya se generaron para otra subida idéntica
+                userRepository.updateProfilePhotoSizes(userId, photoUrl, joinSizes());
+                return;
+            }
+
+            BufferedImage source = decode(original, SIZES[SIZES.length - 1]);
+            if (source == null) {
+                return;
+            }
+
+            for (int size : SIZES) {
+                Path target = original.resolveSibling(variantFileName(original.getFileName().toString(), size));
+                writeJpeg(resize(source, size), target);
+                fileMetadataCache.evict(target);
+            }
+
+            userRepository.updateProfilePhotoSizes(userId, photoUrl, joinSizes());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se pudieron generar derivados de {}", original.getFileName(), e);
+        }
+    }
+
+    private boolean derivativesExist(Path original) {
+        for (int size : SIZES) {
+            if (!Files.exists(original.resolveSibling(variantFileName(original.getFileName().toString(), size)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String joinSizes() {
+        StringJoiner sizes = new StringJoiner(",");
+        for (int size : SIZES) {
+            sizes.add(String.valueOf(size));
+        }
+        return sizes.toString();
+    }
+
+    // Decodifica una sola vez, submuestreando al leer si el original es mucho más grande que el mayor derivado
+    private BufferedImage decode(Path original, int maxSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (maxSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Reducción progresiva a la mitad para evitar aliasing con interpolación bilineal
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                // JPEG no tiene canal alfa: las transparencias se componen sobre blanco
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, currentWidth, currentHeight);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "derivative-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            // Nunca se sirve un derivado escrito a medias
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
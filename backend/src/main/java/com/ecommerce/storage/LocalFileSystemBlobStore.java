@@ -0,0 +1,186 @@
+package com.ecommerce.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+@Component
+public class LocalFileSystemBlobStore implements BlobStore {
+
+    // Solo blobs principales: los derivados llevan sufijo _<tamaño>
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path tmp;
+    // La deduplicación de put() y el borrado del GC toman el lock de la clave. ReentrantLock y no synchronized:
+    // con hilos virtuales el I/O de disco dentro de synchronized fija el hilo a su carrier.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public LocalFileSystemBlobStore(@Value("${storage.local.root:uploads/blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public StoredBlob put(InputStream content, String extension) throws IOException {
+        Files.createDirectories(tmp);
+        Path temp = Files.createTempFile(tmp, "upload-", ".tmp");
+        try {
+            // El hash se calcula mientras se escribe: el archivo se lee una sola vez
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+            Path target = localPath(key);
+
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                if (Files.exists(target)) {
+                    // Renovar la marca de tiempo protege al blob del GC hasta que se guarde la referencia
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                    return new StoredBlob(key, false);
+                }
+
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Otra subida idéntica terminó primero
+                    return new StoredBlob(key, false);
+                }
+                return new StoredBlob(key, true);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(localPath(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Clave de blob inválida: " + key);
+        }
+        return path;
+    }
+
+    @Override
+    public void forEachBatch(int batchSize, BatchConsumer consumer) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> firstLevel = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path first : firstLevel) {
+                if (first.equals(tmp)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> secondLevel = Files.newDirectoryStream(first, Files::isDirectory)) {
+                    for (Path second : secondLevel) {
+                        try (DirectoryStream<Path> blobs = Files.newDirectoryStream(second)) {
+                            for (Path blob : blobs) {
+                                if (!BLOB_NAME.matcher(blob.getFileName().toString()).matches()) {
+                                    continue;
+                                }
+                                batch.add(root.relativize(blob).toString().replace('\\', '/'));
+                                if (batch.size() == batchSize) {
+                                    consumer.accept(batch);
+                                    batch = new ArrayList<>(batchSize);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    @Override
+    public boolean deleteIfUntouchedSince(String key, long olderThanMillis) throws IOException {
+        Path path = localPath(key);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            if (!Files.exists(path) || Files.getLastModifiedTime(path).toMillis() >= olderThanMillis) {
+                return false;
+            }
+            delete(key);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = localPath(key);
+        String fileName = path.getFileName().toString();
+        for (int size : ImageDerivativeService.SIZES) {
+            Files.deleteIfExists(path.resolveSibling(ImageDerivativeService.variantFileName(fileName, size)));
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void purgeIncompleteUploads(long olderThanMillis) throws IOException {
+        if (!Files.isDirectory(tmp)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmp)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < olderThanMillis) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
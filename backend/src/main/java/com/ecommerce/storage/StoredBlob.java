@@ -0,0 +1,16 @@
+package com.ecommerce.storage;
+
+public class StoredBlob {
+    private final String key;
+    private final boolean created;
+
+    public StoredBlob(String key, boolean created) {
+        this.key = key;
+        this.created = created;
+    }
+
+    public String getKey() { return key; }
+
+    // false cuando el contenido ya existía y la subida se deduplicó
+    public boolean isCreated() { return created; }
+}
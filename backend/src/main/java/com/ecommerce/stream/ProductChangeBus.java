@@ -0,0 +1,222 @@
+package com.ecommerce.stream;
+
+import com.ecommerce.dto.ProductChangeDTO;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.service.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reparte los cambios de precio y stock a las pestañas abiertas (GET /api/products/stream).
+// Los cambios confirmados se acumulan por producto y se envían cada flush-interval-ms: diez checkouts
+// seguidos del mismo producto son un solo evento con el último stock, serializado una vez para todos.
+// Cada suscriptor tiene una cola acotada; si se llena, o si su socket no acepta datos durante send-timeout-ms,
+// se lo desconecta y el navegador se reconecta solo.
+@Component
+public class ProductChangeBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeBus.class);
+
+    @Value("${stream.products.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${stream.products.max-ids:50}")
+    private int maxIds;
+
+    // Al vencer, EventSource se reconecta con Last-Event-ID y recibe lo que cambió mientras tanto
+    @Value("${stream.products.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Un socket que no acepta datos no retiene un hilo (la escritura no bloquea), pero tampoco se espera para siempre
+    @Value("${stream.products.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("productStreamExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    private final Map<Long, Set<ProductStreamSubscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final Set<ProductStreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, ProductChangeDTO> pending = new ConcurrentHashMap<>();
+    // Último evento de cada producto, para ponerse al día tras una reconexión sin ir a la base
+    private final Map<Long, ProductStreamEvent> latest = new ConcurrentHashMap<>();
+    // Arranca en la hora actual para que los ids sigan creciendo después de un reinicio
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    private Counter sent;
+    private Counter slowConsumers;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("products.stream.subscribers", subscribers, Set::size)
+                .description("Conexiones SSE abiertas")
+                .register(meterRegistry);
+        Gauge.builder("products.stream.pending", pending, Map::size)
+                .description("Productos con cambios esperando el próximo envío")
+                .register(meterRegistry);
+        sent = Counter.builder("products.stream.events")
+                .description("Eventos encolados para los suscriptores")
+                .register(meterRegistry);
+        slowConsumers = Counter.builder("products.stream.slow-consumers")
+                .description("Suscriptores desconectados por no leer al ritmo de los cambios")
+                .register(meterRegistry);
+    }
+
+    public void subscribe(List<Long> productIds, String lastEventId,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<Long> ids = productIds == null ? List.of() : productIds.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > maxIds) {
+            throw new BadRequestException("Se deben indicar entre 1 y " + maxIds + " productos");
+        }
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeoutMs);
+        ProductStreamSubscriber subscriber = new ProductStreamSubscriber(asyncContext, ids, queueCapacity, executor,
+                this::unsubscribe);
+        subscriber.start();
+
+        for (Long id : ids) {
+            subscribersByProduct.compute(id, (key, set) -> {
+                Set<ProductStreamSubscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+                result.add(subscriber);
+                return result;
+            });
+        }
+        subscribers.add(subscriber);
+
+        // Se registra antes de ponerse al día: un cambio en el medio llega dos veces, nunca ninguna
+        long lastSeen = parseSequence(lastEventId);
+        if (lastSeen > 0) {
+            for (Long id : ids) {
+                ProductStreamEvent event = latest.get(id);
+                if (event != null && event.getSequence() > lastSeen) {
+                    deliver(subscriber, event);
+                }
+            }
+        }
+        // Se cerró mientras se registraba: la baja de onComplete pudo llegar antes que el alta
+        if (subscriber.isClosed()) {
+            unsubscribe(subscriber);
+        }
+    }
+
+    // Después del commit: una transacción que se revierte no anuncia stock que nunca existió
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        for (ProductChangeDTO change : event.getChanges()) {
+            pending.put(change.getId(), change);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stream.products.flush-interval-ms:250}")
+    public void flush() {
+        for (Long id : pending.keySet()) {
+            ProductChangeDTO change = pending.remove(id);
+            if (change == null) {
+                continue;
+            }
+            ProductStreamEvent event = new ProductStreamEvent(sequence.incrementAndGet(), serialize(change));
+            latest.put(id, event);
+            Set<ProductStreamSubscriber> productSubscribers = subscribersByProduct.get(id);
+            if (productSubscribers != null) {
+                for (ProductStreamSubscriber subscriber : productSubscribers) {
+                    deliver(subscriber, event);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${stream.products.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        long sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (ProductStreamSubscriber subscriber : subscribers) {
+            if (subscriber.isBlockedLongerThan(sendTimeoutNanos)) {
+                disconnect(subscriber);
+            } else {
+                deliver(subscriber, ProductStreamEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    private void deliver(ProductStreamSubscriber subscriber, ProductStreamEvent event) {
+        if (subscriber.offer(event)) {
+            sent.increment();
+        } else if (!subscriber.isClosed()) {
+            disconnect(subscriber);
+        }
+    }
+
+    private void disconnect(ProductStreamSubscriber subscriber) {
+        slowConsumers.increment();
+        logger.debug("products_stream_slow_consumer products={}", subscriber.getProductIds());
+        unsubscribe(subscriber);
+        subscriber.close();
+    }
+
+    private void unsubscribe(ProductStreamSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long id : subscriber.getProductIds()) {
+            subscribersByProduct.computeIfPresent(id, (key, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private String serialize(ProductChangeDTO change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
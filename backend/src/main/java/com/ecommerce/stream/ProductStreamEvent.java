@@ -0,0 +1,33 @@
+package com.ecommerce.stream;
+
+import java.nio.charset.StandardCharsets;
+
+// Un cambio ya codificado en formato text/event-stream, compartido por todos los suscriptores del producto.
+// Sin datos es un heartbeat: un comentario SSE que mantiene viva la conexión a través de proxies y detecta
+// pestañas cerradas.
+final class ProductStreamEvent {
+
+    static final ProductStreamEvent HEARTBEAT = new ProductStreamEvent(0, null);
+
+    private final long sequence;
+    private final byte[] bytes;
+
+    ProductStreamEvent(long sequence, String json) {
+        this.sequence = sequence;
+        this.bytes = encode(sequence, json);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    // El JSON de Jackson sin indentar no tiene saltos de línea: entra en un solo campo data
+    private static byte[] encode(long sequence, String json) {
+        String text = json == null ? ":\n\n" : "id:" + sequence + "\nevent:product\ndata:" + json + "\n\n";
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
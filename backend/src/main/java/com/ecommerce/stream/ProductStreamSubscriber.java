@@ -0,0 +1,196 @@
+package com.ecommerce.stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Una pestaña abierta. Los eventos se encolan ya serializados y los escribe un hilo del executor del stream,
+// nunca el que publica: un cliente lento solo llena su propia cola, y al llenarse se lo desconecta.
+// La escritura no bloquea (WriteListener): si el socket no acepta más, el hilo vuelve al executor y el envío
+// sigue cuando el contenedor llama a onWritePossible. Un cliente que no lee no retiene un hilo compartido;
+// ProductChangeBus lo desconecta si queda trabado más de send-timeout-ms.
+// A lo sumo hay un envío programado por suscriptor.
+class ProductStreamSubscriber implements WriteListener, AsyncListener {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final List<Long> productIds;
+    private final Queue<ProductStreamEvent> queue;
+    private final Executor executor;
+    private final Consumer<ProductStreamSubscriber> onEnd;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile boolean completed;
+    // System.nanoTime() de cuando isReady() dio false; 0 mientras el socket acepta escrituras
+    private volatile long blockedSince;
+    // Los headers y lo escrito desde el último flush siguen en el buffer de la respuesta
+    private boolean unflushed = true;
+
+    ProductStreamSubscriber(AsyncContext asyncContext, List<Long> productIds, int queueCapacity, Executor executor,
+                            Consumer<ProductStreamSubscriber> onEnd) throws IOException {
+        this.asyncContext = asyncContext;
+        this.out = asyncContext.getResponse().getOutputStream();
+        this.productIds = productIds;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = executor;
+        this.onEnd = onEnd;
+    }
+
+    // El contenedor llama a onWritePossible apenas se registra: ahí salen los headers
+    void start() {
+        asyncContext.addListener(this);
+        out.setWriteListener(this);
+    }
+
+    List<Long> getProductIds() {
+        return productIds;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean isBlockedLongerThan(long nanos) {
+        long since = blockedSince;
+        return since != 0 && System.nanoTime() - since > nanos;
+    }
+
+    // false si la cola está llena: el cliente no lee al ritmo de los cambios
+    boolean offer(ProductStreamEvent event) {
+        if (closed || !queue.offer(event)) {
+            return false;
+        }
+        // Con el socket trabado el próximo envío lo programa onWritePossible
+        if (blockedSince == 0) {
+            schedule();
+        }
+        return true;
+    }
+
+    // La respuesta se completa desde el hilo que envía o desde el contenedor, nunca con una escritura en curso
+    void close() {
+        closed = true;
+        schedule();
+    }
+
+    @Override
+    public void onWritePossible() {
+        synchronized (this) {
+            blockedSince = 0;
+        }
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        closed = true;
+        complete();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        closed = true;
+        synchronized (this) {
+            completed = true;
+        }
+        queue.clear();
+        onEnd.accept(this);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // Al vencer, EventSource se reconecta con Last-Event-ID
+        closed = true;
+        complete();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        closed = true;
+        complete();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            if (!closed) {
+                write();
+            }
+            if (closed) {
+                complete();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Cliente desconectado o respuesta ya completada; onComplete lo da de baja
+            closed = true;
+            complete();
+        } finally {
+            scheduled.set(false);
+            // Lo que llegó mientras se enviaba, o un cierre pedido después de la última vuelta
+            if (needsDrain()) {
+                schedule();
+            }
+        }
+    }
+
+    // Escribe mientras el socket acepte sin bloquear. Cuando isReady() da false el contenedor termina de enviar
+    // lo pendiente por su cuenta y después llama a onWritePossible.
+    private synchronized void write() throws IOException {
+        if (completed) {
+            return;
+        }
+        while (out.isReady()) {
+            ProductStreamEvent event = queue.poll();
+            if (event != null) {
+                out.write(event.getBytes());
+                unflushed = true;
+            } else if (unflushed) {
+                unflushed = false;
+                out.flush();
+            } else {
+                return;
+            }
+        }
+        if (blockedSince == 0) {
+            blockedSince = System.nanoTime();
+        }
+    }
+
+    private synchronized boolean needsDrain() {
+        if (closed) {
+            return !completed;
+        }
+        return blockedSince == 0 && (unflushed || !queue.isEmpty());
+    }
+
+    private synchronized void complete() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        queue.clear();
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // El contenedor ya la había completado
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Versión H2 (perfil dev) de db/migration/V2: la base en memoria siempre arranca vacía,
+-- así que las secuencias empiezan en 1 sin ajustar a los ids existentes.
+
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE cart_items ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq START WITH 1 INCREMENT BY 50;
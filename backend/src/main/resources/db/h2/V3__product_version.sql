@@ -0,0 +1,2 @@
+-- Columna de versión para bloqueo optimista e invalidación del caché de segundo nivel de Product
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
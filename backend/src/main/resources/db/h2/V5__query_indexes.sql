@@ -0,0 +1,17 @@
+-- Versión H2 (perfil dev) de db/migration/V5: H2 no admite INCLUDE en los índices.
+-- QueryPlanTest comprueba que ninguna consulta de los repositorios recorra una tabla completa.
+
+-- ProductRepository.findByCategoryOrderById
+CREATE INDEX IF NOT EXISTS products_category_idx ON products (category, id);
+
+-- UserRepository.findAuthViewByEmail
+CREATE INDEX IF NOT EXISTS users_email_auth_idx ON users (email);
+
+-- UserRepository.findReferencedProfilePhotos (GC de blobs)
+CREATE INDEX IF NOT EXISTS users_profile_photo_idx ON users (profile_photo);
+
+-- CartItemRepository.findByUserId, findByUserIdAndProductId y deleteByUserId
+CREATE INDEX IF NOT EXISTS cart_items_user_product_idx ON cart_items (user_id, product_id);
+
+-- Verificación de la clave foránea al borrar productos
+CREATE INDEX IF NOT EXISTS cart_items_product_idx ON cart_items (product_id);
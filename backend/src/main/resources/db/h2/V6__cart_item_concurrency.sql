@@ -0,0 +1,6 @@
+-- Versión H2 (perfil dev) de db/migration/V6: en una base nueva no hay líneas duplicadas que fusionar.
+
+ALTER TABLE cart_items ADD CONSTRAINT cart_items_user_product_key UNIQUE (user_id, product_id);
+DROP INDEX IF EXISTS cart_items_user_product_idx;
+
+ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
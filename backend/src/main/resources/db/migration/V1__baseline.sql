@@ -0,0 +1,46 @@
+-- Esquema inicial, tal como lo generaba Hibernate con ddl-auto=update.
+-- En bases existentes Flyway lo marca como aplicado (baseline-on-migrate) y continúa desde V2.
+
+CREATE TABLE categories (
+    id          varchar(255) NOT NULL,
+    name        varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    CONSTRAINT categories_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    name        varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    price       float(53)    NOT NULL,
+    stock       integer      NOT NULL,
+    category    varchar(255) NOT NULL,
+    image_url   varchar(255),
+    CONSTRAINT products_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY,
+    username      varchar(255) NOT NULL,
+    email         varchar(255) NOT NULL,
+    password      varchar(255) NOT NULL,
+    first_name    varchar(255) NOT NULL,
+    last_name     varchar(255) NOT NULL,
+    role          varchar(255) NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    is_active     boolean      NOT NULL,
+    profile_photo varchar(255),
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT users_username_key UNIQUE (username),
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+CREATE TABLE cart_items (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id    bigint,
+    product_id bigint,
+    quantity   integer NOT NULL,
+    CONSTRAINT cart_items_pkey PRIMARY KEY (id),
+    CONSTRAINT cart_items_user_fk FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT cart_items_product_fk FOREIGN KEY (product_id) REFERENCES products (id)
+);
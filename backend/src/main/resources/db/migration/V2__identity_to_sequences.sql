@@ -0,0 +1,19 @@
+-- Pasa las claves generadas de IDENTITY a secuencias con incremento 50 (optimizador pooled-lo de Hibernate).
+-- Los ids existentes no cambian: cada secuencia arranca después del máximo actual.
+
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cart_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+-- Esquemas creados con bigserial tienen un DEFAULT nextval(...) en lugar de IDENTITY
+ALTER TABLE products ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE cart_items ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq INCREMENT BY 50;
+
+-- Con pooled-lo el valor devuelto por nextval es el primer id del bloque
+SELECT setval('products_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('cart_items_seq', COALESCE((SELECT MAX(id) FROM cart_items), 0) + 1, false);
@@ -0,0 +1,2 @@
+-- Tamaños de los derivados generados para la foto de perfil
+ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_photo_sizes varchar(255);
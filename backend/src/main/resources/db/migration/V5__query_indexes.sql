@@ -0,0 +1,17 @@
+-- Índices para cada consulta de los repositorios. QueryPlanVerifier (perfil explain-check)
+-- comprueba que ninguna de ellas termine en un Seq Scan.
+
+-- ProductRepository.findByCategoryOrderById
+CREATE INDEX IF NOT EXISTS products_category_idx ON products (category, id);
+
+-- UserRepository.findAuthViewByEmail: se ejecuta en cada request autenticada; con INCLUDE es un index-only scan
+CREATE INDEX IF NOT EXISTS users_email_auth_idx ON users (email) INCLUDE (id, role, is_active);
+
+-- UserRepository.findReferencedProfilePhotos (GC de blobs)
+CREATE INDEX IF NOT EXISTS users_profile_photo_idx ON users (profile_photo);
+
+-- CartItemRepository.findByUserId, findByUserIdAndProductId y deleteByUserId
+CREATE INDEX IF NOT EXISTS cart_items_user_product_idx ON cart_items (user_id, product_id);
+
+-- Verificación de la clave foránea al borrar productos
+CREATE INDEX IF NOT EXISTS cart_items_product_idx ON cart_items (product_id);
@@ -0,0 +1,16 @@
+-- Una sola línea de carrito por usuario y producto, y versión para bloqueo optimista de la cantidad.
+
+-- Fusiona las líneas duplicadas que pudieran haber dejado agregados concurrentes
+UPDATE cart_items c SET quantity = d.total
+FROM (SELECT MIN(id) AS keep_id, SUM(quantity) AS total
+      FROM cart_items GROUP BY user_id, product_id HAVING COUNT(*) > 1) d
+WHERE c.id = d.keep_id;
+
+DELETE FROM cart_items c USING cart_items k
+WHERE c.user_id = k.user_id AND c.product_id = k.product_id AND c.id > k.id;
+
+-- El índice de la restricción reemplaza a cart_items_user_product_idx (V5) para las mismas consultas
+ALTER TABLE cart_items ADD CONSTRAINT cart_items_user_product_key UNIQUE (user_id, product_id);
+DROP INDEX IF EXISTS cart_items_user_product_idx;
+
+ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
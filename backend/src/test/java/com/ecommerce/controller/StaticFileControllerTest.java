@@ -0,0 +1,94 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.RegisterDTO;
+import com.ecommerce.service.AuthService;
+import com.ecommerce.storage.BlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"dev", "test"})
+class StaticFileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private AuthService authService;
+
+    private String authorization;
+
+    // /uploads exige sesión como el resto de la API
+    @BeforeEach
+    void register() {
+        String name = "static" + Long.toString(System.nanoTime(), 36);
+        authorization = "Bearer " + authService.register(
+                new RegisterDTO(name, name + "@static.local", "static-password", "Static", "Files")).getToken();
+    }
+
+    @Test
+    void originalIsImmutableButSizeFallbackIsNot() throws Exception {
+        String url = BlobStore.PUBLIC_URL_PREFIX + putBlob("fallback");
+
+        mockMvc.perform(get(url).header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "private, max-age=31536000, immutable"));
+        // El derivado no existe todavía: se sirve el original, pero la URL con ?size= cambiará de contenido
+        mockMvc.perform(get(url).header("Authorization", authorization).param("size", "48"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "private, max-age=60"));
+    }
+
+    // El ETag es el hash del contenido que ya da nombre al blob
+    @Test
+    void blobEtagIsItsContentHash() throws Exception {
+        String key = putBlob("etag");
+        String hash = key.substring(key.lastIndexOf('/') + 1, key.lastIndexOf('.'));
+        String url = BlobStore.PUBLIC_URL_PREFIX + key;
+
+        mockMvc.perform(get(url).header("Authorization", authorization))
+                .andExpect(header().string("ETag", "\"" + hash + "\""));
+        mockMvc.perform(get(url).header("Authorization", authorization)
+                        .header("If-None-Match", "\"otro\", W/\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+        // Un prefijo del hash no es la misma etiqueta
+        mockMvc.perform(get(url).header("Authorization", authorization)
+                        .header("If-None-Match", "\"" + hash.substring(0, 10) + "\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifNoneMatchComparesWholeTags() {
+        assertTrue(StaticFileController.matchesAny("*", "\"abc\""));
+        assertTrue(StaticFileController.matchesAny("\"abc\"", "\"abc\""));
+        assertTrue(StaticFileController.matchesAny(" \"x\" , W/\"abc\"", "\"abc\""));
+        assertFalse(StaticFileController.matchesAny("\"abcd\"", "\"abc\""));
+        assertFalse(StaticFileController.matchesAny("\"xabc\"", "\"abc\""));
+        assertFalse(StaticFileController.matchesAny("abc", "\"abc\""));
+        assertFalse(StaticFileController.matchesAny("\"abc", "\"abc\""));
+    }
+
+    private String putBlob(String content) throws IOException {
+        byte[] bytes = (content + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+        return blobStore.put(new ByteArrayInputStream(bytes), ".png").getKey();
+    }
+}
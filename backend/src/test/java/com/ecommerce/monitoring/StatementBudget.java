@@ -0,0 +1,65 @@
+package com.ecommerce.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Máximo de sentencias por tipo que puede ejecutar una llamada. Los tipos no indicados no admiten ninguna.
+// Uso: StatementBudget.atMost().selects(2).updates(1).violations(counts)
+public class StatementBudget {
+
+    private final int[] limits = new int[StatementCounter.Type.values().length];
+
+    private StatementBudget() {}
+
+    public static StatementBudget atMost() {
+        return new StatementBudget();
+    }
+
+    public StatementBudget selects(int limit) {
+        return limit(StatementCounter.Type.SELECT, limit);
+    }
+
+    public StatementBudget inserts(int limit) {
+        return limit(StatementCounter.Type.INSERT, limit);
+    }
+
+    public StatementBudget updates(int limit) {
+        return limit(StatementCounter.Type.UPDATE, limit);
+    }
+
+    public StatementBudget deletes(int limit) {
+        return limit(StatementCounter.Type.DELETE, limit);
+    }
+
+    private StatementBudget limit(StatementCounter.Type type, int limit) {
+        limits[type.ordinal()] = limit;
+        return this;
+    }
+
+    // Vacía si la llamada respetó el presupuesto
+    public List<String> violations(StatementCounts counts) {
+        List<String> violations = new ArrayList<>();
+        for (StatementCounter.Type type : StatementCounter.Type.values()) {
+            int count = counts.get(type);
+            if (count > limits[type.ordinal()]) {
+                violations.add(count + " " + type + " (máximo " + limits[type.ordinal()] + ")");
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("como máximo ");
+        for (StatementCounter.Type type : StatementCounter.Type.values()) {
+            if (limits[type.ordinal()] > 0) {
+                text.append(limits[type.ordinal()]).append(' ').append(type).append(", ");
+            }
+        }
+        if (text.length() == "como máximo ".length()) {
+            return "ninguna sentencia";
+        }
+        text.setLength(text.length() - 2);
+        return text.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.monitoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Cuenta por tipo las sentencias SQL que ejecuta el hilo actual; la alimenta CountingDataSource.
+// Un lote JDBC cuenta una vez: es un solo viaje a la base. Fuera de measure() no registra nada.
+public final class StatementCounter {
+
+    public enum Type { SELECT, INSERT, UPDATE, DELETE, OTHER }
+
+    private static final ThreadLocal<StatementCounter> CURRENT = ThreadLocal.withInitial(StatementCounter::new);
+
+    private final int[] counts = new int[Type.values().length];
+    private final List<String> statements = new ArrayList<>();
+    private boolean active;
+
+    private StatementCounter() {}
+
+    // Uso: StatementCounts counts = StatementCounter.measure(() -> cartService.getCart(userId));
+    public static StatementCounts measure(Supplier<?> action) {
+        StatementCounter counter = CURRENT.get();
+        if (counter.active) {
+            throw new IllegalStateException("Ya hay una medición en curso en este hilo");
+        }
+        Arrays.fill(counter.counts, 0);
+        counter.statements.clear();
+        counter.active = true;
+        try {
+            action.get();
+        } finally {
+            counter.active = false;
+        }
+        return new StatementCounts(counter.counts.clone(), new ArrayList<>(counter.statements));
+    }
+
+    public static StatementCounts measure(Runnable action) {
+        return measure(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    static void record(String sql) {
+        StatementCounter counter = CURRENT.get();
+        if (counter.active && sql != null) {
+            counter.counts[classify(sql).ordinal()]++;
+            counter.statements.add(sql);
+        }
+    }
+
+    // Primera palabra clave después de espacios, paréntesis y comentarios
+    static Type classify(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else {
+                break;
+            }
+        }
+        if (startsWithKeyword(sql, i, "select") || startsWithKeyword(sql, i, "with")) {
+            return Type.SELECT;
+        }
+        if (startsWithKeyword(sql, i, "insert") || startsWithKeyword(sql, i, "merge")) {
+            return Type.INSERT;
+        }
+        if (startsWithKeyword(sql, i, "update")) {
+            return Type.UPDATE;
+        }
+        if (startsWithKeyword(sql, i, "delete")) {
+            return Type.DELETE;
+        }
+        return Type.OTHER;
+    }
+
+    private static boolean startsWithKeyword(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.monitoring;
+
+import java.util.List;
+
+public class StatementCounts {
+
+    private final int[] counts;
+    private final List<String> statements;
+
+    StatementCounts(int[] counts, List<String> statements) {
+        this.counts = counts;
+        this.statements = statements;
+    }
+
+    public int get(StatementCounter.Type type) {
+        return counts[type.ordinal()];
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    // En el orden en que se ejecutaron
+    public List<String> getStatements() { return statements; }
+
+    // "2 SELECT, 1 UPDATE"; solo los tipos que aparecieron
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (StatementCounter.Type type : StatementCounter.Type.values()) {
+            int count = counts[type.ordinal()];
+            if (count > 0) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(count).append(' ').append(type);
+            }
+        }
+        return text.length() == 0 ? "ninguna sentencia" : text.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.monitoring.StatementCounter;
+import com.ecommerce.monitoring.StatementCountingConfig;
+import com.ecommerce.monitoring.StatementCounts;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Ninguna consulta de los repositorios recorre una tabla completa. Se ejecuta cada método, se toma el SQL que
+// generó Hibernate y se le pide el plan a la base, con el esquema de las migraciones (db/h2 en el perfil dev).
+// findAll de productos y categorías y UserRepository.findAllIdentities leen la tabla completa a propósito.
+@SpringBootTest
+@ActiveProfiles({"dev", "test"})
+@Import(StatementCountingConfig.class)
+class QueryPlanTest {
+
+    // Así marca H2 en el plan un recorrido sin índice
+    private static final String TABLE_SCAN = ".tableScan";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ProductRepository.findById", () -> productRepository.findById(1L));
+        queries.put("ProductRepository.findByCategoryOrderById", () -> productRepository.findByCategoryOrderById("electronicos"));
+        queries.put("CategoryRepository.findById", () -> categoryRepository.findById("electronicos"));
+        queries.put("UserRepository.findById", () -> userRepository.findById(1L));
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("admin@ecommerce.com"));
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("admin"));
+        queries.put("UserRepository.findAuthViewByEmail", () -> userRepository.findAuthViewByEmail("admin@ecommerce.com"));
+        queries.put("UserRepository.findIdentitiesByUsernameOrEmail",
+                () -> userRepository.findIdentitiesByUsernameOrEmail("admin", "admin@ecommerce.com"));
+        queries.put("UserRepository.findReferencedProfilePhotos",
+                () -> userRepository.findReferencedProfilePhotos(List.of("/uploads/blobs/a", "/uploads/blobs/b")));
+        queries.put("UserRepository.updateProfilePhotoSizes",
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.updateProfilePhotoSizes(1L, "/uploads/blobs/a", "48");
+                    status.setRollbackOnly();
+                }));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("admin@ecommerce.com"));
+        queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("admin"));
+        queries.put("CartItemRepository.findById", () -> cartItemRepository.findById(1L));
+        queries.put("CartItemRepository.findByUserId", () -> cartItemRepository.findByUserId(1L));
+        queries.put("CartItemRepository.findByUserIdAndProductId", () -> cartItemRepository.findByUserIdAndProductId(1L, 1L));
+        queries.put("CartItemRepository.deleteByUserId",
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    cartItemRepository.deleteByUserId(-1L);
+                    status.setRollbackOnly();
+                }));
+
+        List<DynamicTest> tests = new ArrayList<>();
+        queries.forEach((name, query) -> tests.add(DynamicTest.dynamicTest(name, () -> verify(name, query))));
+        return tests.stream();
+    }
+
+    private void verify(String name, Runnable query) {
+        // Lo que responde la caché de segundo nivel no llega a la base
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        StatementCounts counts = StatementCounter.measure(query);
+        List<String> statements = counts.getStatements();
+        assertFalse(statements.isEmpty(), name + " no ejecutó ninguna sentencia");
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(TABLE_SCAN), () -> name + " recorre la tabla completa:\n" + plan);
+        }
+    }
+
+    // El plan no depende de los valores: los parámetros se ligan a NULL
+    private String explain(String sql) {
+        long parameters = sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.AddToCartDTO;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles({"dev", "test"})
+class CartCheckoutTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Una compra cuya transacción se revierte después de que checkout() volvió no cuenta como exitosa
+    @Test
+    void checkoutIsRecordedWithTheOutcomeOfItsTransaction() {
+        Long userId = createUserWithCart("rollback");
+        long successes = checkouts("success", "none");
+        long rollbacks = checkouts("failure", "rollback");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartService.checkout(userId);
+            status.setRollbackOnly();
+        });
+        assertEquals(successes, checkouts("success", "none"));
+        assertEquals(rollbacks + 1, checkouts("failure", "rollback"));
+
+        cartService.checkout(userId);
+        assertEquals(successes + 1, checkouts("success", "none"));
+    }
+
+    // El evento JFR también lleva el resultado real: el de la transacción, no el del método
+    @Test
+    void checkoutEventCarriesTheOutcomeOfItsTransaction() throws IOException {
+        Long userId = createUserWithCart("jfr");
+        Path file = Files.createTempFile("checkout", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.ecommerce.Checkout");
+            recording.start();
+            transactionTemplate.executeWithoutResult(status -> {
+                cartService.checkout(userId);
+                status.setRollbackOnly();
+            });
+            cartService.checkout(userId);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> outcomes = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getLong("userId") == userId)
+                .map(event -> event.getString("outcome"))
+                .toList();
+        Files.delete(file);
+        assertEquals(List.of("rollback", "success"), outcomes);
+    }
+
+    private Long createUserWithCart(String tag) {
+        String name = "checkout-" + tag + "-" + Long.toString(System.nanoTime(), 36);
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Checkout");
+        product.setPrice(100.0);
+        product.setStock(10);
+        product.setCategory(name);
+        Long productId = productRepository.save(product).getId();
+
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@checkout.local");
+        user.setPassword("-");
+        user.setFirstName("Checkout");
+        user.setLastName("Test");
+        user.setRole("user");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setIsActive(true);
+        Long userId = userRepository.save(user).getId();
+
+        cartService.addToCart(userId, new AddToCartDTO(productId, 2));
+        return userId;
+    }
+
+    private long checkouts(String outcome, String reason) {
+        Timer timer = meterRegistry.find("shop.checkout").tag("outcome", outcome).tag("reason", reason).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
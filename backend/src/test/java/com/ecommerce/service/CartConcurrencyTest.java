@@ -0,0 +1,335 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.AddToCartDTO;
+import com.ecommerce.dto.CartItemDTO;
+import com.ecommerce.dto.CheckoutResponseDTO;
+import com.ecommerce.dto.UpdateCartItemDTO;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Somete productos y carritos compartidos a cientos de hilos y verifica los invariantes al final de cada corrida:
+// el stock vendido no supera al inicial, ningún stock queda negativo, el stock descontado coincide con las compras
+// confirmadas y ningún carrito pide más de lo que hay. Cada corrida tiene dos fases:
+//   1. solo agregados: la cantidad final de cada línea debe ser la suma de los agregados confirmados
+//   2. agregados, cambios de cantidad, bajas y checkouts mezclados
+// La secuencia de operaciones de cada hilo (y sus pausas) sale de la semilla; el entrelazado real lo decide el
+// planificador, así que una semilla que falla conviene repetirla varias veces.
+@SpringBootTest
+@ActiveProfiles({"dev", "test"})
+class CartConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartConcurrencyTest.class);
+
+    private static final int THREADS = 200;
+    private static final int OPERATIONS_PER_THREAD = 40;
+    // Pocos productos y usuarios para que los hilos choquen sobre las mismas filas
+    private static final int PRODUCT_COUNT = 4;
+    private static final int USER_COUNT = 20;
+    private static final int INITIAL_STOCK = 30;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest(name = "semilla {0}")
+    @ValueSource(longs = {20240601L, 20240602L, 20240603L})
+    void cartAndStockInvariantsHold(long seed) throws InterruptedException {
+        List<String> violations = runOnce(seed);
+        assertTrue(violations.isEmpty(), () -> "semilla " + seed + ":\n" + String.join("\n", violations));
+    }
+
+    private List<String> runOnce(long runSeed) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(runSeed);
+        Fixture fixture = createFixture(runSeed, random);
+        List<String> violations = new ArrayList<>();
+
+        PhaseResult adds = runPhase(fixture, random, false);
+        adds.log("solo agregados");
+        violations.addAll(adds.violations);
+        verifyCarts(fixture, adds, false, violations);
+
+        PhaseResult mixed = runPhase(fixture, random, true);
+        mixed.log("operaciones mezcladas");
+        violations.addAll(mixed.violations);
+        verifyCarts(fixture, mixed, true, violations);
+        verifyStock(fixture, mixed, violations);
+        return violations;
+    }
+
+    private Fixture createFixture(long runSeed, SplittableRandom random) {
+        // Prefijo único para no chocar con corridas anteriores si la base no es en memoria
+        String tag = "stress-" + Long.toString(System.currentTimeMillis(), 36) + "-" + runSeed;
+        Fixture fixture = new Fixture(tag);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < PRODUCT_COUNT; i++) {
+                Product product = new Product();
+                product.setName("Producto " + tag + " " + i);
+                product.setDescription("Producto para la prueba de concurrencia");
+                // Precios enteros: la suma de importes en double es exacta
+                product.setPrice((double) (100 + random.nextInt(900)));
+                product.setStock(INITIAL_STOCK);
+                product.setCategory(tag);
+                product = productRepository.save(product);
+                fixture.productIds.add(product.getId());
+                fixture.prices.put(product.getId(), product.getPrice());
+            }
+            for (int i = 0; i < USER_COUNT; i++) {
+                User user = new User();
+                user.setUsername(tag + "u" + i);
+                user.setEmail(tag + "u" + i + "@stress.local");
+                // No inicia sesión: el test llama directamente a los servicios
+                user.setPassword("-");
+                user.setFirstName("Stress");
+                user.setLastName("Test");
+                user.setRole("user");
+                user.setCreatedAt(LocalDateTime.now());
+                user.setIsActive(true);
+                fixture.userIds.add(userRepository.save(user).getId());
+            }
+        });
+        return fixture;
+    }
+
+    private PhaseResult runPhase(Fixture fixture, SplittableRandom random, boolean mixed) throws InterruptedException {
+        PhaseResult result = new PhaseResult(USER_COUNT, PRODUCT_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            // Cada hilo recibe su propio generador derivado de la semilla, en orden fijo
+            SplittableRandom threadRandom = random.split();
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                    perform(fixture, threadRandom, mixed, result);
+                }
+            }, "stress-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        // Todos los hilos arrancan a la vez para maximizar la contención
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return result;
+    }
+
+    private void perform(Fixture fixture, SplittableRandom random, boolean mixed, PhaseResult result) {
+        // Todos los valores se sortean antes de operar: la secuencia no depende de lo que responda la base
+        int userIndex = random.nextInt(USER_COUNT);
+        int productIndex = random.nextInt(PRODUCT_COUNT);
+        int quantity = 1 + random.nextInt(3);
+        int updatedQuantity = 1 + random.nextInt(6);
+        int operation = mixed ? random.nextInt(100) : 0;
+        long pauseBefore = pauseNanos(random);
+        long pauseBetween = pauseNanos(random);
+
+        Long userId = fixture.userIds.get(userIndex);
+        Long productId = fixture.productIds.get(productIndex);
+        pause(pauseBefore);
+        try {
+            if (operation < 55) {
+                CartItemDTO item = cartService.addToCart(userId, new AddToCartDTO(productId, quantity));
+                result.added.addAndGet(userIndex * PRODUCT_COUNT + productIndex, quantity);
+                result.checkItem(item);
+            } else if (operation < 80) {
+                CartItem existing = cartItemRepository.findByUserIdAndProductId(userId, productId).orElse(null);
+                if (existing == null) {
+                    result.skipped.increment();
+                    return;
+                }
+                // Deja pasar a otros hilos entre la lectura y la escritura
+                pause(pauseBetween);
+                if (operation < 75) {
+                    result.checkItem(cartService.updateCartItem(userId, existing.getId(),
+                            new UpdateCartItemDTO(updatedQuantity)));
+                } else {
+                    cartService.removeFromCart(userId, existing.getId());
+                }
+            } else {
+                CheckoutResponseDTO checkout = cartService.checkout(userId);
+                result.checkoutTotal.add(checkout.getTotal());
+            }
+            result.succeeded.increment();
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            result.rejected.increment();
+        } catch (ConcurrencyFailureException e) {
+            result.conflicts.increment();
+        } catch (RuntimeException e) {
+            result.recordUnexpected(e);
+        }
+    }
+
+    // Con los stocks sin tocar (fase 1) ninguna línea puede superar el stock. En la fase 2 un checkout ajeno
+    // puede dejar una línea por encima del stock restante; eso lo rechaza el propio checkout.
+    private void verifyCarts(Fixture fixture, PhaseResult result, boolean mixed, List<String> violations) {
+        Map<String, int[]> lines = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT c.user_id, c.product_id, COUNT(*) AS line_count, SUM(c.quantity) AS quantity, p.stock "
+                        + "FROM cart_items c JOIN products p ON p.id = c.product_id "
+                        + "WHERE p.category = ? GROUP BY c.user_id, c.product_id, p.stock",
+                rs -> {
+                    lines.put(rs.getLong("user_id") + "/" + rs.getLong("product_id"),
+                            new int[] {rs.getInt("line_count"), rs.getInt("quantity"), rs.getInt("stock")});
+                },
+                fixture.tag);
+
+        for (int u = 0; u < USER_COUNT; u++) {
+            for (int p = 0; p < PRODUCT_COUNT; p++) {
+                Long userId = fixture.userIds.get(u);
+                Long productId = fixture.productIds.get(p);
+                int[] line = lines.get(userId + "/" + productId);
+                if (line != null && line[0] > 1) {
+                    violations.add("usuario " + userId + " tiene " + line[0] + " líneas del producto " + productId);
+                }
+                if (mixed) {
+                    continue;
+                }
+                int quantity = line == null ? 0 : line[1];
+                if (line != null && quantity > line[2]) {
+                    violations.add("usuario " + userId + " tiene " + quantity + " unidades del producto "
+                            + productId + " con stock " + line[2]);
+                }
+                int expected = result.added.get(u * PRODUCT_COUNT + p);
+                if (quantity != expected) {
+                    violations.add("usuario " + userId + ", producto " + productId + ": cantidad " + quantity
+                            + " tras agregados confirmados por " + expected + " (actualización perdida)");
+                }
+            }
+        }
+    }
+
+    private void verifyStock(Fixture fixture, PhaseResult result, List<String> violations) {
+        double soldAmount = 0;
+        for (Long productId : fixture.productIds) {
+            int stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+            int sold = INITIAL_STOCK - stock;
+            if (stock < 0) {
+                violations.add("producto " + productId + " con stock negativo: vendidas " + sold
+                        + " unidades de " + INITIAL_STOCK);
+            } else if (sold < 0) {
+                violations.add("producto " + productId + ": el stock subió de " + INITIAL_STOCK + " a " + stock);
+            }
+            soldAmount += sold * fixture.prices.get(productId);
+        }
+        // Cada compra confirmada descuenta exactamente lo que cobró: si no coincide, se perdió o duplicó un descuento
+        double confirmedAmount = result.checkoutTotal.sum();
+        if (Math.abs(soldAmount - confirmedAmount) > 0.001) {
+            violations.add("stock descontado por $" + soldAmount + " contra compras confirmadas por $" + confirmedAmount);
+        }
+    }
+
+    // Una de cada cuatro operaciones espera hasta 200 µs; el resto solo cede el procesador
+    private static long pauseNanos(SplittableRandom random) {
+        return random.nextInt(4) == 0 ? random.nextInt(200_000) : 0;
+    }
+
+    private static void pause(long nanos) {
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        } else {
+            Thread.yield();
+        }
+    }
+
+    private static class Fixture {
+        private final String tag;
+        private final List<Long> productIds = new ArrayList<>();
+        private final List<Long> userIds = new ArrayList<>();
+        private final Map<Long, Double> prices = new HashMap<>();
+
+        Fixture(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static class PhaseResult {
+        // Unidades agregadas con éxito por usuario y producto (índice usuario * productos + producto)
+        private final AtomicIntegerArray added;
+        private final DoubleAdder checkoutTotal = new DoubleAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final Map<String, LongAdder> unexpected = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+        PhaseResult(int users, int products) {
+            this.added = new AtomicIntegerArray(users * products);
+        }
+
+        // La respuesta refleja la cantidad y el stock leídos en la misma transacción
+        void checkItem(CartItemDTO item) {
+            if (item.getQuantity() > item.getProduct().getStock()) {
+                violations.add("línea " + item.getId() + " aceptada con " + item.getQuantity()
+                        + " unidades y stock " + item.getProduct().getStock());
+            }
+        }
+
+        void recordUnexpected(RuntimeException e) {
+            String type = e.getClass().getName();
+            if (unexpected.putIfAbsent(type, new LongAdder()) == null) {
+                logger.warn("Excepción no prevista durante la prueba", e);
+                violations.add("excepción no prevista: " + type + ": " + e.getMessage());
+            }
+            unexpected.get(type).increment();
+        }
+
+        void log(String phase) {
+            logger.info("Fase '{}': {} confirmadas, {} rechazadas por validación, {} conflictos, {} sin línea que modificar",
+                    phase, succeeded.sum(), rejected.sum(), conflicts.sum(), skipped.sum());
+            unexpected.forEach((type, count) -> logger.warn("Fase '{}': {} x {}", phase, count.sum(), type));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@ActiveProfiles({"dev", "test"})
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    // Un cambio no hace esperar a las lecturas: siguen recibiendo el snapshot anterior hasta que refresh() termina
+    @Test
+    void servesPreviousSnapshotWhileRebuildingInBackground() throws InterruptedException {
+        CatalogSnapshot before = catalogSnapshotService.current();
+        assertNotNull(before);
+
+        catalogSnapshotService.onCatalogChanged(new CatalogChangedEvent("test"));
+        assertSame(before, catalogSnapshotService.current());
+
+        catalogSnapshotService.refresh();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (catalogSnapshotService.current() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotEquals(before.getVersion(), catalogSnapshotService.current().getVersion());
+    }
+}
@@ -0,0 +1,291 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.AddToCartDTO;
+import com.ecommerce.dto.ChangePasswordDTO;
+import com.ecommerce.dto.CreateCategoryDTO;
+import com.ecommerce.dto.CreateProductDTO;
+import com.ecommerce.dto.LoginDTO;
+import com.ecommerce.dto.RegisterDTO;
+import com.ecommerce.dto.UpdateCartItemDTO;
+import com.ecommerce.dto.UpdateCategoryDTO;
+import com.ecommerce.dto.UpdateProductDTO;
+import com.ecommerce.dto.UpdateProfileDTO;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.monitoring.StatementBudget;
+import com.ecommerce.monitoring.StatementCounter;
+import com.ecommerce.monitoring.StatementCountingConfig;
+import com.ecommerce.monitoring.StatementCounts;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cada método público de los servicios ejecuta una cantidad acotada de sentencias SQL, la misma con pocos
+// datos que con muchos: una consulta N+1 supera el presupuesto en cuanto el conjunto crece.
+// Cada llamada recibe un conjunto de datos nuevo y se mide con las cachés de segundo nivel vacías.
+@SpringBootTest
+@ActiveProfiles({"dev", "test"})
+@Import(StatementCountingConfig.class)
+class StatementBudgetTest {
+
+    private static final String PASSWORD = "query-count-password";
+
+    // Productos, categorías y líneas de carrito de cada conjunto de datos. Hasta 50 el checkout
+    // descuenta el stock en un solo lote JDBC (hibernate.jdbc.batch_size).
+    private static final int[] DATASET_SIZES = {1, 10, 40};
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int datasetSequence;
+
+    @TestFactory
+    Stream<DynamicTest> serviceMethodsStayWithinBudget() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Check check : checks()) {
+            for (int size : DATASET_SIZES) {
+                tests.add(DynamicTest.dynamicTest(check.name + " [" + size + " filas]", () -> verify(check, size)));
+            }
+        }
+        return tests.stream();
+    }
+
+    private List<Check> checks() {
+        byte[] photo = samplePng();
+        List<Check> checks = new ArrayList<>();
+
+        checks.add(new Check("ProductService.getAllProducts", StatementBudget.atMost().selects(1),
+                data -> productService.getAllProducts()));
+        checks.add(new Check("ProductService.getProductsByCategory", StatementBudget.atMost().selects(1),
+                data -> productService.getProductsByCategory(data.tag)));
+        checks.add(new Check("ProductService.getProductById", StatementBudget.atMost().selects(1),
+                data -> productService.getProductById(data.productIds.get(0))));
+        // La secuencia pooled-lo pide un bloque de ids cada 50 inserciones: a veces hay un SELECT y a veces no
+        checks.add(new Check("ProductService.createProduct", StatementBudget.atMost().selects(1).inserts(1),
+                data -> productService.createProduct(new CreateProductDTO(
+                        "Nuevo " + data.tag, "Descripción", 100.0, 10, data.tag, null))));
+        // save() sobre una entidad desprendida hace merge: vuelve a leerla antes del UPDATE
+        checks.add(new Check("ProductService.updateProduct", StatementBudget.atMost().selects(2).updates(1),
+                data -> productService.updateProduct(data.productIds.get(0), new UpdateProductDTO(
+                        null, null, 150.0, null, null, null))));
+        checks.add(new Check("ProductService.deleteProduct", StatementBudget.atMost().selects(2).deletes(1),
+                data -> productService.deleteProduct(data.spareProductId)));
+        // Una reconstrucción es la misma única consulta del listado, sin importar cuántas categorías tenga
+        checks.add(new Check("CatalogSnapshotService.rebuild", StatementBudget.atMost().selects(1),
+                data -> {
+                    catalogSnapshotService.onCatalogChanged(new CatalogChangedEvent("query-count"));
+                    catalogSnapshotService.rebuild();
+                }));
+
+        checks.add(new Check("CategoryService.getAllCategories", StatementBudget.atMost().selects(1),
+                data -> categoryService.getAllCategories()));
+        checks.add(new Check("CategoryService.getCategoryById", StatementBudget.atMost().selects(1),
+                data -> categoryService.getCategoryById(data.categoryIds.get(0))));
+        checks.add(new Check("CategoryService.createCategory", StatementBudget.atMost().selects(2).inserts(1),
+                data -> categoryService.createCategory(new CreateCategoryDTO(data.tag + "-nueva", "Nueva", "Descripción"))));
+        checks.add(new Check("CategoryService.updateCategory", StatementBudget.atMost().selects(2).updates(1),
+                data -> categoryService.updateCategory(data.categoryIds.get(0), new UpdateCategoryDTO("Renombrada", null))));
+        checks.add(new Check("CategoryService.deleteCategory", StatementBudget.atMost().selects(2).deletes(1),
+                data -> categoryService.deleteCategory(data.categoryIds.get(0))));
+
+        checks.add(new Check("CartService.getCart", StatementBudget.atMost().selects(1),
+                data -> cartService.getCart(data.userId)));
+        checks.add(new Check("CartService.addToCart (línea nueva)", StatementBudget.atMost().selects(3).inserts(1),
+                data -> cartService.addToCart(data.userId, new AddToCartDTO(data.spareProductId, 1))));
+        checks.add(new Check("CartService.addToCart (línea existente)", StatementBudget.atMost().selects(2).updates(1),
+                data -> cartService.addToCart(data.userId, new AddToCartDTO(data.productIds.get(0), 1))));
+        checks.add(new Check("CartService.updateCartItem", StatementBudget.atMost().selects(2).updates(1),
+                data -> cartService.updateCartItem(data.userId, data.cartItemIds.get(0), new UpdateCartItemDTO(2))));
+        checks.add(new Check("CartService.removeFromCart", StatementBudget.atMost().selects(1).deletes(1),
+                data -> cartService.removeFromCart(data.userId, data.cartItemIds.get(0))));
+        checks.add(new Check("CartService.clearCart", StatementBudget.atMost().deletes(1),
+                data -> cartService.clearCart(data.userId)));
+        // Los UPDATE de stock van en un lote: un viaje a la base sin importar la cantidad de líneas
+        checks.add(new Check("CartService.checkout", StatementBudget.atMost().selects(1).updates(1).deletes(1),
+                data -> cartService.checkout(data.userId)));
+
+        checks.add(new Check("AuthService.register", StatementBudget.atMost().selects(1).inserts(1),
+                data -> authService.register(new RegisterDTO(
+                        data.tag + "n", data.tag + "n@querycount.local", PASSWORD, "Query", "Count"))));
+        checks.add(new Check("AuthService.login", StatementBudget.atMost().selects(1),
+                data -> authService.login(new LoginDTO(data.email, PASSWORD))));
+        checks.add(new Check("AuthService.getUserProfile", StatementBudget.atMost().selects(1),
+                data -> authService.getUserProfile(data.userId)));
+
+        checks.add(new Check("UserProfileService.getProfile", StatementBudget.atMost().selects(1),
+                data -> userProfileService.getProfile(data.userId)));
+        // Incluye la confirmación del nombre de usuario cuando el filtro de Bloom da positivo
+        checks.add(new Check("UserProfileService.updateProfile", StatementBudget.atMost().selects(3).updates(1),
+                data -> userProfileService.updateProfile(data.userId, new UpdateProfileDTO("Otro", null, data.tag + "x"))));
+        checks.add(new Check("UserProfileService.uploadPhoto", StatementBudget.atMost().selects(2).updates(1),
+                data -> userProfileService.uploadPhoto(data.userId,
+                        new MockMultipartFile("file", "foto.png", "image/png", photo))));
+        checks.add(new Check("UserProfileService.changePassword", StatementBudget.atMost().selects(2).updates(1),
+                data -> userProfileService.changePassword(data.userId, new ChangePasswordDTO(PASSWORD, PASSWORD + "2"))));
+        return checks;
+    }
+
+    private void verify(Check check, int size) {
+        Dataset data = createDataset(size);
+        // Se mide el camino frío: lo que ya está en caché no llega a la base y ocultaría consultas
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        StatementCounts counts = StatementCounter.measure(() -> check.action.accept(data));
+        // Cero sentencias en el camino frío quiere decir que CountingDataSource no está delante del pool
+        assertTrue(counts.getTotal() > 0, check.name + ": no se registró ninguna sentencia");
+
+        List<String> violations = check.budget.violations(counts);
+        assertTrue(violations.isEmpty(), () -> check.name + " [" + size + " filas]: " + counts
+                + " supera el presupuesto (" + check.budget + "):\n" + String.join("\n", counts.getStatements()));
+    }
+
+    private Dataset createDataset(int size) {
+        Dataset data = new Dataset("qc" + Long.toString(System.currentTimeMillis(), 36) + (datasetSequence++));
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < size; i++) {
+                Category category = new Category();
+                category.setId(data.tag + "-" + i);
+                category.setName("Categoría " + i);
+                category.setDescription("Conteo de sentencias");
+                data.categoryIds.add(categoryRepository.save(category).getId());
+            }
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i <= size; i++) {
+                Product product = new Product();
+                product.setName("Producto " + data.tag + " " + i);
+                product.setDescription("Conteo de sentencias");
+                product.setPrice(100.0);
+                product.setStock(100);
+                product.setCategory(data.tag);
+                products.add(productRepository.save(product));
+            }
+            // El último queda fuera del carrito: se puede agregar o borrar sin violar claves foráneas
+            data.spareProductId = products.get(size).getId();
+
+            User user = new User();
+            user.setUsername(data.tag);
+            user.setEmail(data.tag + "@querycount.local");
+            user.setPassword(encodedPassword);
+            user.setFirstName("Query");
+            user.setLastName("Count");
+            user.setRole("user");
+            user.setCreatedAt(LocalDateTime.now());
+            user.setIsActive(true);
+            user = userRepository.save(user);
+            data.userId = user.getId();
+            data.email = user.getEmail();
+
+            for (Product product : products.subList(0, size)) {
+                CartItem item = new CartItem();
+                item.setUser(user);
+                item.setProduct(product);
+                item.setQuantity(1);
+                data.productIds.add(product.getId());
+                data.cartItemIds.add(cartItemRepository.save(item).getId());
+            }
+        });
+        return data;
+    }
+
+    private static byte[] samplePng() {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static class Check {
+        private final String name;
+        private final StatementBudget budget;
+        private final Consumer<Dataset> action;
+
+        Check(String name, StatementBudget budget, Consumer<Dataset> action) {
+            this.name = name;
+            this.budget = budget;
+            this.action = action;
+        }
+    }
+
+    private static class Dataset {
+        private final String tag;
+        private final List<String> categoryIds = new ArrayList<>();
+        private final List<Long> productIds = new ArrayList<>();
+        private final List<Long> cartItemIds = new ArrayList<>();
+        private Long spareProductId;
+        private Long userId;
+        private String email;
+
+        Dataset(String tag) {
+            this.tag = tag;
+        }
+    }
+}
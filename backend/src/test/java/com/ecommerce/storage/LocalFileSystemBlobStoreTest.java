@@ -0,0 +1,38 @@
+package com.ecommerce.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileSystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    // Una subida idéntica que deduplica después de que el GC eligió el blob lo salva: el borrado vuelve a mirar
+    // la marca de tiempo bajo el mismo lock que put()
+    @Test
+    void deduplicatedUploadKeepsBlobFromCollector() throws IOException {
+        LocalFileSystemBlobStore store = new LocalFileSystemBlobStore(root.toString());
+        byte[] content = "foto".getBytes();
+        String key = store.put(new ByteArrayInputStream(content), ".png").getKey();
+        long cutoff = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(store.localPath(key), FileTime.fromMillis(cutoff - 60_000));
+
+        store.put(new ByteArrayInputStream(content), ".png");
+        assertFalse(store.deleteIfUntouchedSince(key, cutoff));
+        assertTrue(store.exists(key));
+
+        Files.setLastModifiedTime(store.localPath(key), FileTime.fromMillis(cutoff - 60_000));
+        assertTrue(store.deleteIfUntouchedSince(key, cutoff));
+        assertFalse(store.exists(key));
+    }
+}
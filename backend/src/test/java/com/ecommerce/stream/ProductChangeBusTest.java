@@ -0,0 +1,121 @@
+package com.ecommerce.stream;
+
+import com.ecommerce.dto.ProductChangeDTO;
+import com.ecommerce.service.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Un solo hilo de envío y colas que no se llenan: lo único que puede frenar al suscriptor sano es el socket del otro
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "stream.products.sender-threads=1",
+        "stream.products.queue-capacity=1000000",
+        "stream.products.flush-interval-ms=3600000",
+        "stream.products.heartbeat-interval-ms=3600000",
+        "stream.products.send-timeout-ms=500"})
+@ActiveProfiles({"dev", "test"})
+class ProductChangeBusTest {
+
+    private static final int PRODUCTS = 50;
+    private static final int ROUNDS = 10000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductChangeBus productChangeBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Un cliente que no lee no retiene el hilo de envío: los demás siguen recibiendo y a él se lo desconecta
+    @Test
+    void stalledClientDoesNotHoldTheSender() throws Exception {
+        String path = "/api/products/stream?ids=" + LongStream.rangeClosed(1, PRODUCTS)
+                .mapToObj(Long::toString).collect(Collectors.joining(","));
+        try (Socket stalled = new Socket(); Socket healthy = new Socket()) {
+            stalled.setReceiveBufferSize(1024);
+            open(stalled, path);
+            open(healthy, path);
+            assertEquals(2.0, subscribers());
+
+            CountDownLatch lastEvent = new CountDownLatch(1);
+            Thread reader = Thread.ofPlatform().daemon().start(() -> readUntil(healthy, "\"stock\":-1", lastEvent));
+
+            for (int round = 0; round < ROUNDS; round++) {
+                publish(round);
+            }
+            productChangeBus.onCatalogChanged(new CatalogChangedEvent("test", List.of(new ProductChangeDTO(1L, 1.0, -1))));
+            productChangeBus.flush();
+            assertTrue(lastEvent.await(10, TimeUnit.SECONDS), "el suscriptor sano no recibió el último cambio");
+            reader.interrupt();
+
+            Thread.sleep(1000);
+            productChangeBus.heartbeat();
+            assertEquals(1.0, subscribers());
+        }
+    }
+
+    private void publish(int round) {
+        List<ProductChangeDTO> changes = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            changes.add(new ProductChangeDTO(id, 100.0 + round, round));
+        }
+        productChangeBus.onCatalogChanged(new CatalogChangedEvent("test", changes));
+        productChangeBus.flush();
+    }
+
+    private void open(Socket socket, String path) throws Exception {
+        double before = subscribers();
+        socket.connect(new InetSocketAddress("localhost", port));
+        socket.setSoTimeout(30_000);
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (subscribers() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void readUntil(Socket socket, String marker, CountDownLatch found) {
+        try {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(marker)) {
+                    found.countDown();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // El test cierra el socket al terminar
+        }
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("products.stream.subscribers").gauge().value();
+    }
+}
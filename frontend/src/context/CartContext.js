@@ -131,6 +131,17 @@ export const CartProvider = ({ children }) => {
     return item ? item.quantity : 0; // Retornar cantidad o 0 si no existe
   };
 
+  // Función para aplicar un cambio de precio o stock recibido en vivo (sin bajar la cantidad de 1)
+  const applyProductChange = (change) => {
+    setCartItems(prevItems =>
+      prevItems.map(item =>
+        item.productId === change.id
+          ? { ...item, price: change.price, stock: change.stock, quantity: Math.max(1, Math.min(item.quantity, change.stock)) }
+          : item // Mantener otros items sin cambios
+      )
+    );
+  };
+
   // Objeto con todos los valores y funciones que se proporcionarán a los componentes hijos
   const value = {
     cartItems, // Array de items del carrito
@@ -142,7 +153,8 @@ export const CartProvider = ({ children }) => {
     getTotalItems, // Función para obtener total de items
     getTotalPrice, // Función para obtener precio total
     isInCart, // Función para verificar si producto está en carrito
-    getProductQuantity // Función para obtener cantidad de producto específico
+    getProductQuantity, // Función para obtener cantidad de producto específico
+    applyProductChange // Función para aplicar cambios de precio y stock en vivo
   };
 
   // Proveedor del contexto que envuelve los componentes hijos
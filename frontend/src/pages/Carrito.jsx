@@ -3,17 +3,21 @@ import React, { useState, useEffect } from "react";
 import { Link, useNavigate } from "react-router-dom"; // Hooks para navegación
 import { useAuth } from "../context/AuthContext"; // Contexto de autenticación
 import { useCart } from "../context/CartContext"; // Contexto del carrito
+import { useProductUpdates } from "../services/productUpdates"; // Cambios de precio y stock en vivo
 
 // Componente Carrito - Página del carrito de compras
 function Carrito() {
   const { isAuthenticated, user } = useAuth(); // Obtener estado de autenticación y datos del usuario
-  const { cartItems, loading, updateQuantity, removeFromCart, clearCart, getTotalPrice } = useCart(); // Funciones del carrito
+  const { cartItems, loading, updateQuantity, removeFromCart, clearCart, getTotalPrice, applyProductChange } = useCart(); // Funciones del carrito
   const navigate = useNavigate(); // Hook para navegación programática
   const [updating, setUpdating] = useState(false); // Estado para operaciones de actualización
   const [message, setMessage] = useState(""); // Estado para mensajes de feedback
   const [showDeleteConfirm, setShowDeleteConfirm] = useState(null); // Estado para confirmación de eliminación
   const [showClearCartConfirm, setShowClearCartConfirm] = useState(false); // Estado para confirmación de vaciar carrito
 
+  // Mantener precio y stock de los productos del carrito al día sin recargar la página
+  useProductUpdates(cartItems.map(item => item.productId), applyProductChange);
+
   // Función para manejar la actualización de cantidad de un producto
   const handleUpdateQuantity = async (itemId, newQuantity) => {
     if (newQuantity < 1) return; // No permitir cantidades menores a 1
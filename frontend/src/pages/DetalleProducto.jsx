@@ -4,6 +4,7 @@ import { useParams, useNavigate, Link } from "react-router-dom"; // Hooks para p
 import { useAuth } from "../context/AuthContext"; // Contexto de autenticación
 import { useCart } from "../context/CartContext"; // Contexto del carrito
 import productsData from "../data/bs.json"; // Datos de productos desde archivo JSON
+import { useProductUpdates } from "../services/productUpdates"; // Cambios de precio y stock en vivo
 
 // Componente DetalleProducto - Página de detalle individual de un producto
 function DetalleProducto() {
@@ -54,6 +55,11 @@ function DetalleProducto() {
     loadProduct(); // Ejecutar función de carga
   }, [id]);
 
+  // Actualizar precio y stock en vivo mientras la página está abierta
+  useProductUpdates(product ? [product.id] : [], (change) => {
+    setProduct(prev => (prev && prev.id === change.id ? { ...prev, price: change.price, stock: change.stock } : prev));
+  });
+
   const handleAddToCart = async () => {
     if (quantity > product.stock) {
       setMessage("No hay suficiente stock disponible");
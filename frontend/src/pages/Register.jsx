@@ -15,6 +15,13 @@ function Register() {
     setForm({ ...form, [e.target.name]: e.target.value }); // Actualizar campo específico
   };
 
+  // Función para verificar en vivo si el email ya está registrado
+  const handleEmailBlur = async () => {
+    if (!/^[^@\s]+@[^@\s]+\.[^@\s]+$/.test(form.email)) return; // Solo consultar emails con formato válido
+    const res = await authService.checkAvailability(form.email);
+    setErrors((prev) => ({ ...prev, email: res.data.emailAvailable ? undefined : "El email ya está registrado" }));
+  };
+
   // Función para validar los datos del formulario
   const validate = () => {
     const errs = {};
@@ -102,6 +109,7 @@ function Register() {
               className={`p-2 border rounded ${errors.email ? "border-red-500" : "border-primary/40"}`}
               value={form.email}
               onChange={handleChange}
+              onBlur={handleEmailBlur}
             />
             {errors.email && <span className="text-red-500 text-sm">{errors.email}</span>}
             <input
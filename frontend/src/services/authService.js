@@ -126,6 +126,14 @@ class AuthService {
     });
   }
 
+  // Verificar disponibilidad del email (equivale a GET /api/auth/available del backend)
+  async checkAvailability(email) {
+    // Buscar si algún usuario ya usa el email indicado
+    const taken = this.users.some(u => u.email === email);
+    // Responder con el mismo formato que el backend
+    return { data: { emailAvailable: !taken } };
+  }
+
   // Generar token JWT simple (en producción usar librería JWT real)
   generateToken(user) {
     // Crear payload con información del usuario y expiración
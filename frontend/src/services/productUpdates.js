@@ -0,0 +1,26 @@
+// Importar hooks de React necesarios para manejar la suscripción
+import { useEffect, useRef } from "react";
+
+// Hook que recibe en vivo los cambios de precio y stock de los productos indicados (GET /api/products/stream del backend)
+// Reemplaza recargar la página: el navegador reconecta solo y reenvía Last-Event-ID para recibir lo que cambió mientras tanto
+export function useProductUpdates(productIds, onChange) {
+  const onChangeRef = useRef(onChange); // Guardar el callback más reciente sin reabrir la conexión
+  onChangeRef.current = onChange;
+
+  // Clave estable con los IDs sin repetir, para reconectar solo si cambia el conjunto de productos
+  const ids = [...new Set(productIds)].sort((a, b) => a - b).join(",");
+
+  useEffect(() => {
+    if (!ids || typeof EventSource === "undefined") return; // Nada que seguir o navegador sin soporte
+
+    const source = new EventSource(`/api/products/stream?ids=${ids}`); // Abrir una única conexión para todos los productos
+    const handleProduct = (event) => onChangeRef.current(JSON.parse(event.data)); // Entregar { id, price, stock }
+    source.addEventListener("product", handleProduct);
+
+    // Cerrar la conexión al desmontar el componente o cambiar los productos
+    return () => {
+      source.removeEventListener("product", handleProduct);
+      source.close();
+    };
+  }, [ids]);
+}